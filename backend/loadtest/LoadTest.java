@@ -0,0 +1,461 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exam-start load test: N candidates fetch the same quiz, start an attempt and submit it, all at once.
+ * Reports throughput and latency percentiles of each step, so platform and virtual thread mode can be
+ * compared on the same machine and database. JDK only, run with the source launcher:
+ *
+ *   java backend/loadtest/LoadTest.java --mode platform --candidates 2000
+ *
+ * The backend must run with the loadtest profile, see backend/loadtest/README.md.
+ */
+public class LoadTest {
+
+    enum Step { FETCH, START, SUBMIT }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int candidates = Integer.parseInt(options.getOrDefault("candidates", "2000"));
+        int loginConcurrency = Integer.parseInt(options.getOrDefault("login-concurrency", "32"));
+        String mode = options.getOrDefault("mode", "unnamed");
+        String out = options.get("out");
+
+        LoadTest test = new LoadTest(baseUrl);
+        String adminToken = test.login("admin@quizforge.com", "admin123");
+        long quizId = test.createQuiz(adminToken);
+        Map<Long, Long> answerKey = test.answerKey(adminToken, quizId);
+        System.out.printf("Quiz %d created, logging in %d candidates%n", quizId, candidates);
+
+        String[] tokens = test.loginCandidates(candidates, loginConcurrency);
+        Result result = test.run(tokens, quizId, answerKey);
+        result.print(mode, candidates);
+        if (out != null) {
+            result.append(Path.of(out), mode, candidates);
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+
+    LoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    // ---- setup ----
+
+    String login(String email, String password) throws Exception {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response = send(post("/api/auth/login", null, body));
+            if (response.statusCode() == 200) {
+                return (String) data(response).get("token");
+            }
+            // Login verification is bounded on the server, back off as told
+            if ((response.statusCode() == 503 || response.statusCode() == 429) && attempt < 20) {
+                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                Thread.sleep(retryAfter * 1000);
+                continue;
+            }
+            throw new IllegalStateException("Login of " + email + " failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    String[] loginCandidates(int candidates, int concurrency) throws Exception {
+        String[] tokens = new String[candidates];
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicInteger failed = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < candidates; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        permits.acquire();
+                        try {
+                            tokens[index] = login("loadtest-" + (index + 1) + "@quizforge.test", "candidate123");
+                        } finally {
+                            permits.release();
+                        }
+                    } catch (Exception e) {
+                        if (failed.incrementAndGet() == 1) {
+                            System.err.println(e.getMessage());
+                        }
+                    }
+                });
+            }
+        }
+        if (failed.get() > 0) {
+            throw new IllegalStateException(failed.get() + " candidates could not log in; is the loadtest profile active?");
+        }
+        return tokens;
+    }
+
+    long createQuiz(String adminToken) throws Exception {
+        StringBuilder questions = new StringBuilder();
+        for (int q = 1; q <= 10; q++) {
+            if (q > 1) {
+                questions.append(',');
+            }
+            questions.append("{\"questionText\":\"Question ").append(q)
+                    .append("\",\"type\":\"MULTIPLE_CHOICE\",\"points\":1,\"options\":[");
+            for (int o = 1; o <= 4; o++) {
+                if (o > 1) {
+                    questions.append(',');
+                }
+                questions.append("{\"optionText\":\"Option ").append(o)
+                        .append("\",\"isCorrect\":").append(o == 1).append('}');
+            }
+            questions.append("]}");
+        }
+        String body = "{\"title\":\"Load test " + LocalDateTime.now() + "\",\"description\":\"Generated\","
+                + "\"duration\":60,\"isActive\":true,\"questions\":[" + questions + "]}";
+        HttpResponse<String> response = send(post("/api/quizzes", adminToken, body));
+        expect(response, 201, 200);
+        return ((Number) data(response).get("id")).longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<Long, Long> answerKey(String adminToken, long quizId) throws Exception {
+        HttpResponse<String> response = send(get("/api/quizzes/" + quizId, adminToken));
+        expect(response, 200);
+        Map<Long, Long> key = new LinkedHashMap<>();
+        for (Object question : (List<Object>) data(response).get("questions")) {
+            Map<String, Object> q = (Map<String, Object>) question;
+            List<Object> options = (List<Object>) q.get("options");
+            // The first option is correct, every other answer picks the second so grading marks both
+            Map<String, Object> picked = (Map<String, Object>) options.get(key.size() % 2);
+            key.put(((Number) q.get("id")).longValue(), ((Number) picked.get("id")).longValue());
+        }
+        return key;
+    }
+
+    // ---- measured phase ----
+
+    Result run(String[] tokens, long quizId, Map<Long, Long> answerKey) throws Exception {
+        int candidates = tokens.length;
+        Result result = new Result(candidates);
+        StringBuilder answers = new StringBuilder();
+        answerKey.forEach((questionId, optionId) -> answers.append(answers.isEmpty() ? "" : ",")
+                .append("{\"questionId\":").append(questionId).append(",\"selectedOptionId\":").append(optionId).append('}'));
+
+        CountDownLatch ready = new CountDownLatch(candidates);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] wall = new long[2];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < candidates; i++) {
+                String token = tokens[i];
+                int index = i;
+                executor.execute(() -> {
+                    ready.countDown();
+                    try {
+                        go.await();
+                        HttpResponse<String> fetched = result.time(Step.FETCH, index,
+                                () -> send(get("/api/quizzes/" + quizId, token)));
+                        if (fetched == null || fetched.statusCode() != 200) {
+                            return;
+                        }
+                        HttpResponse<String> started = result.time(Step.START, index,
+                                () -> send(post("/api/quizzes/" + quizId + "/start", token, "")));
+                        if (started == null || started.statusCode() >= 400) {
+                            return;
+                        }
+                        long attemptId = ((Number) data(started).get("id")).longValue();
+                        String body = "{\"attemptId\":" + attemptId + ",\"answers\":[" + answers + "],"
+                                + "\"idempotencyKey\":\"loadtest-" + attemptId + "\"}";
+                        result.time(Step.SUBMIT, index, () -> send(post("/api/quizzes/submit", token, body)));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            ready.await();
+            wall[0] = System.nanoTime();
+            go.countDown();
+        }
+        wall[1] = System.nanoTime();
+        result.wallNanos = wall[1] - wall[0];
+        return result;
+    }
+
+    static final class Result {
+        final Map<Step, long[]> latencies = new HashMap<>();
+        final Map<Step, AtomicInteger> errors = new HashMap<>();
+        final Map<Step, AtomicInteger> firstErrorCodes = new HashMap<>();
+        long wallNanos;
+
+        Result(int candidates) {
+            for (Step step : Step.values()) {
+                long[] slots = new long[candidates];
+                Arrays.fill(slots, -1);
+                latencies.put(step, slots);
+                errors.put(step, new AtomicInteger());
+                firstErrorCodes.put(step, new AtomicInteger());
+            }
+        }
+
+        interface Call {
+            HttpResponse<String> call() throws IOException, InterruptedException;
+        }
+
+        HttpResponse<String> time(Step step, int index, Call call) throws InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = call.call();
+            } catch (IOException e) {
+                // Connection refused or reset, reported as status -1
+                errors.get(step).incrementAndGet();
+                firstErrorCodes.get(step).compareAndSet(0, -1);
+                return null;
+            }
+            long took = System.nanoTime() - start;
+            if (response.statusCode() >= 400) {
+                errors.get(step).incrementAndGet();
+                firstErrorCodes.get(step).compareAndSet(0, response.statusCode());
+            } else {
+                latencies.get(step)[index] = took;
+            }
+            return response;
+        }
+
+        void print(String mode, int candidates) {
+            double seconds = wallNanos / 1e9;
+            System.out.printf("%nMode %s, %d candidates, %.2f s wall time%n", mode, candidates, seconds);
+            System.out.printf("%-7s %8s %7s %10s %9s %9s %9s %9s%n",
+                    "step", "ok", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            long totalOk = 0;
+            for (Step step : Step.values()) {
+                long[] sorted = ok(step);
+                totalOk += sorted.length;
+                String error = errors.get(step).get() == 0 ? "" : " (first status " + firstErrorCodes.get(step).get() + ")";
+                System.out.printf("%-7s %8d %7d %10.1f %9.1f %9.1f %9.1f %9.1f%s%n", step, sorted.length,
+                        errors.get(step).get(), sorted.length / seconds, percentile(sorted, 50),
+                        percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100), error);
+            }
+            System.out.printf("total   %8d %7s %10.1f%n", totalOk, "", totalOk / seconds);
+        }
+
+        void append(Path file, String mode, int candidates) throws IOException {
+            StringBuilder lines = new StringBuilder();
+            if (!Files.exists(file)) {
+                lines.append("timestamp,mode,candidates,step,ok,errors,wall_seconds,req_per_second,p50_ms,p90_ms,p99_ms,max_ms\n");
+            }
+            double seconds = wallNanos / 1e9;
+            for (Step step : Step.values()) {
+                long[] sorted = ok(step);
+                lines.append(String.format("%s,%s,%d,%s,%d,%d,%.3f,%.1f,%.1f,%.1f,%.1f,%.1f%n", LocalDateTime.now(), mode,
+                        candidates, step, sorted.length, errors.get(step).get(), seconds, sorted.length / seconds,
+                        percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100)));
+            }
+            Files.writeString(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        private long[] ok(Step step) {
+            return Arrays.stream(latencies.get(step)).filter(nanos -> nanos >= 0).sorted().toArray();
+        }
+
+        // Nearest-rank percentile in milliseconds
+        private static double percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+
+    // ---- HTTP and JSON ----
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, String body) {
+        return request(path, token).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expect(HttpResponse<String> response, int... codes) {
+        for (int code : codes) {
+            if (response.statusCode() == code) {
+                return;
+            }
+        }
+        throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode() + ": " + response.body());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> data(HttpResponse<String> response) {
+        Map<String, Object> body = (Map<String, Object>) new Json(response.body()).value();
+        return (Map<String, Object>) body.get("data");
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Minimal JSON reader for the API responses: objects, arrays, strings, numbers, booleans and null.
+     */
+    static final class Json {
+        private final String text;
+        private int pos;
+
+        Json(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipWhitespace();
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    return object();
+                case '[':
+                    return array();
+                case '"':
+                    return string();
+                case 't':
+                    pos += 4;
+                    return Boolean.TRUE;
+                case 'f':
+                    pos += 5;
+                    return Boolean.FALSE;
+                case 'n':
+                    pos += 4;
+                    return null;
+                default:
+                    return number();
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (text.charAt(pos) == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                pos++; // ':'
+                object.put(key, value());
+                skipWhitespace();
+                if (text.charAt(pos++) == '}') {
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (text.charAt(pos) == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(value());
+                skipWhitespace();
+                if (text.charAt(pos++) == ']') {
+                    return array;
+                }
+            }
+        }
+
+        private String string() {
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (true) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\') {
+                    char escaped = text.charAt(pos++);
+                    switch (escaped) {
+                        case 'n' -> value.append('\n');
+                        case 't' -> value.append('\t');
+                        case 'r' -> value.append('\r');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            pos += 4;
+                        }
+                        default -> value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+        }
+
+        private Number number() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String number = text.substring(start, pos);
+            if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                return Double.parseDouble(number);
+            }
+            return Long.parseLong(number);
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.quizforge.benchmark;
+
+import com.quizforge.dto.AnswerRequest;
+import com.quizforge.dto.SubmitQuizRequest;
+import com.quizforge.model.Answer;
+import com.quizforge.model.Option;
+import com.quizforge.model.Question;
+import com.quizforge.model.Quiz;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entities shaped like a seeded quiz, for benchmarks that never touch the database.
+ * Every tenth question is SHORT_ANSWER, every fifth TRUE_FALSE, the rest MULTIPLE_CHOICE with
+ * four options. The same size always builds the same ids and texts, so results are comparable.
+ */
+public final class Fixtures {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 9, 0);
+
+    private Fixtures() {
+    }
+
+    public static User admin() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("admin@quizforge.com");
+        user.setName("Admin");
+        user.setRole(User.Role.ADMIN);
+        user.setCreatedAt(CREATED_AT);
+        return user;
+    }
+
+    public static User candidate() {
+        User user = new User();
+        user.setId(2L);
+        user.setEmail("candidate@example.com");
+        user.setName("Candidate");
+        user.setRole(User.Role.CANDIDATE);
+        user.setCreatedAt(CREATED_AT);
+        return user;
+    }
+
+    public static Quiz quiz(int questionCount) {
+        Quiz quiz = new Quiz();
+        quiz.setId(1L);
+        quiz.setTitle("Benchmark quiz with " + questionCount + " questions");
+        quiz.setDescription("Covers general science, geography and history at an introductory level.");
+        quiz.setDuration(60);
+        quiz.setIsActive(true);
+        quiz.setCreatedBy(admin());
+        quiz.setCreatedAt(CREATED_AT);
+        quiz.setUpdatedAt(CREATED_AT);
+
+        long optionId = 1;
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question();
+            question.setId(i + 1L);
+            question.setQuiz(quiz);
+            question.setPoints(1 + i % 3);
+            if (i % 10 == 9) {
+                question.setType(Question.QuestionType.SHORT_ANSWER);
+                question.setQuestionText("Question " + (i + 1) + ": by which process do plants turn light into chemical energy?");
+                addOption(question, optionId++, "~photosynthesis", true);
+                addOption(question, optionId++, "kw: light, energy, glucose", true);
+            } else if (i % 5 == 4) {
+                question.setType(Question.QuestionType.TRUE_FALSE);
+                question.setQuestionText("Question " + (i + 1) + ": water boils at 100 degrees Celsius at sea level.");
+                addOption(question, optionId++, "True", true);
+                addOption(question, optionId++, "False", false);
+            } else {
+                question.setType(Question.QuestionType.MULTIPLE_CHOICE);
+                question.setQuestionText("Question " + (i + 1) + ": which of these is the capital of France?");
+                addOption(question, optionId++, "Berlin", false);
+                addOption(question, optionId++, "Paris", true);
+                addOption(question, optionId++, "Madrid", false);
+                addOption(question, optionId++, "Rome", false);
+            }
+            quiz.getQuestions().add(question);
+        }
+        return quiz;
+    }
+
+    /**
+     * Answers to every question of the quiz: odd questions wrong, even ones right,
+     * short answers with a typo that the fuzzy rule still accepts.
+     */
+    public static SubmitQuizRequest submitRequest(Quiz quiz) {
+        List<AnswerRequest> answers = new ArrayList<>(quiz.getQuestions().size());
+        for (Question question : quiz.getQuestions()) {
+            if (question.getType() == Question.QuestionType.SHORT_ANSWER) {
+                answers.add(new AnswerRequest(question.getId(), null, "fotosynthesis"));
+            } else {
+                answers.add(new AnswerRequest(question.getId(), chosen(question).getId(), null));
+            }
+        }
+        return new SubmitQuizRequest(1L, answers, null);
+    }
+
+    /**
+     * An evaluated attempt of the candidate with the same answers as {@link #submitRequest(Quiz)}.
+     */
+    public static QuizAttempt evaluatedAttempt(Quiz quiz) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(1L);
+        attempt.setQuiz(quiz);
+        attempt.setUser(candidate());
+        attempt.setStartedAt(CREATED_AT.plusDays(1));
+        attempt.setSubmittedAt(CREATED_AT.plusDays(1).plusMinutes(42));
+        attempt.setTimeTakenMinutes(42L);
+        attempt.setExceededTimeLimit(false);
+        attempt.setStatus(QuizAttempt.AttemptStatus.EVALUATED);
+
+        int score = 0;
+        int totalPoints = 0;
+        long answerId = 1;
+        for (Question question : quiz.getQuestions()) {
+            Answer answer = new Answer();
+            answer.setId(answerId++);
+            answer.setAttempt(attempt);
+            answer.setQuestion(question);
+            boolean correct;
+            if (question.getType() == Question.QuestionType.SHORT_ANSWER) {
+                answer.setTextAnswer("fotosynthesis");
+                correct = true;
+            } else {
+                Option selected = chosen(question);
+                answer.setSelectedOption(selected);
+                correct = selected.getIsCorrect();
+            }
+            answer.setIsCorrect(correct);
+            answer.setPointsEarned(correct ? question.getPoints() : 0);
+            score += answer.getPointsEarned();
+            totalPoints += question.getPoints();
+            attempt.getAnswers().add(answer);
+        }
+        attempt.setScore(score);
+        attempt.setTotalPoints(totalPoints);
+        return attempt;
+    }
+
+    private static Option chosen(Question question) {
+        boolean right = question.getId() % 2 == 0;
+        for (Option option : question.getOptions()) {
+            if (option.getIsCorrect() == right) {
+                return option;
+            }
+        }
+        return question.getOptions().get(0);
+    }
+
+    private static void addOption(Question question, long id, String text, boolean correct) {
+        Option option = new Option();
+        option.setId(id);
+        option.setQuestion(question);
+        option.setOptionText(text);
+        option.setIsCorrect(correct);
+        question.getOptions().add(option);
+    }
+}
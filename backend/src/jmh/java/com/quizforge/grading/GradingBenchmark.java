@@ -0,0 +1,62 @@
+package com.quizforge.grading;
+
+import com.quizforge.benchmark.Fixtures;
+import com.quizforge.dto.AnswerRequest;
+import com.quizforge.dto.SubmitQuizRequest;
+import com.quizforge.model.Quiz;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading a submission against the compiled answer key: each answer is validated as
+ * {@link AttemptGrader#recordAnswers} does and scored as {@link AttemptGrader#grade} does,
+ * without the entities and statistics around them. compileAnswerKey is the cost of a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int questions;
+
+    private Quiz quiz;
+    private AnswerKey answerKey;
+    private SubmitQuizRequest request;
+
+    @Setup
+    public void setUp() {
+        quiz = Fixtures.quiz(questions);
+        answerKey = AnswerKey.compile(quiz);
+        request = Fixtures.submitRequest(quiz);
+    }
+
+    @Benchmark
+    public int grade() {
+        int score = 0;
+        for (AnswerRequest answer : request.answers()) {
+            AttemptGrader.validate(answerKey, answer);
+            score += answerKey.pointsFor(answer.questionId(), answer.selectedOptionId(), answer.textAnswer());
+        }
+        return score;
+    }
+
+    @Benchmark
+    public AnswerKey compileAnswerKey() {
+        return AnswerKey.compile(quiz);
+    }
+}
@@ -0,0 +1,68 @@
+package com.quizforge.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing and verifying access tokens. verifyUncached is the first request with a token,
+ * verifyCached every request after it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "YourSuperSecretKeyForJWTTokenGenerationMustBeLongEnoughForHS512Algorithm";
+    private static final long EXPIRATION = 900_000;
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = jwtUtil(new VerifiedTokenCache(10_000));
+        // A cache that never has room, so every call parses and checks the signature
+        uncached = jwtUtil(new VerifiedTokenCache(0));
+        token = cached.generateToken(2L, "candidate@example.com", "CANDIDATE").token();
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.AccessToken generate() {
+        return cached.generateToken(2L, "candidate@example.com", "CANDIDATE");
+    }
+
+    @Benchmark
+    public JwtUtil.TokenClaims verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.TokenClaims verifyCached() {
+        return cached.verify(token);
+    }
+
+    private static JwtUtil jwtUtil(VerifiedTokenCache cache) {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, EXPIRATION);
+        Field field = ReflectionUtils.findField(JwtUtil.class, "verifiedTokenCache");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtUtil, cache);
+        return jwtUtil;
+    }
+}
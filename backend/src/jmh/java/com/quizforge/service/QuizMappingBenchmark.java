@@ -0,0 +1,54 @@
+package com.quizforge.service;
+
+import com.quizforge.benchmark.Fixtures;
+import com.quizforge.dto.DetailedAttemptResponse;
+import com.quizforge.dto.QuizResponse;
+import com.quizforge.model.Quiz;
+import com.quizforge.model.QuizAttempt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of the quiz a candidate takes and of the attempt result they review.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int questions;
+
+    private Quiz quiz;
+    private QuizAttempt attempt;
+
+    @Setup
+    public void setUp() {
+        quiz = Fixtures.quiz(questions);
+        attempt = Fixtures.evaluatedAttempt(quiz);
+    }
+
+    @Benchmark
+    public QuizResponse quizForCandidate() {
+        return CandidateService.toQuizResponseForCandidate(quiz);
+    }
+
+    @Benchmark
+    public DetailedAttemptResponse detailedAttempt() {
+        return CandidateService.toDetailedAttemptResponse(attempt);
+    }
+}
@@ -0,0 +1,54 @@
+package com.quizforge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quizforge.benchmark.Fixtures;
+import com.quizforge.dto.ApiResponse;
+import com.quizforge.dto.QuizResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the quiz a candidate fetches as the JSON body of the response.
+ * The mapper is configured like the one Spring Boot builds for the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int questions;
+
+    private ObjectMapper objectMapper;
+    private QuizResponse quiz;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        quiz = CandidateService.toQuizResponseForCandidate(Fixtures.quiz(questions));
+    }
+
+    @Benchmark
+    public byte[] quizForCandidate() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(quiz));
+    }
+}
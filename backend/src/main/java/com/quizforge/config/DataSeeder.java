@@ -3,11 +3,16 @@ package com.quizforge.config;
 import com.quizforge.model.User;
 import com.quizforge.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class DataSeeder implements CommandLineRunner {
@@ -18,12 +23,19 @@ public class DataSeeder implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    // Candidates for backend/loadtest, loadtest-1@quizforge.test .. loadtest-N@quizforge.test
+    @Value("${quiz.seed.load-test-candidates:0}")
+    private int loadTestCandidates;
+
+    private static final String LOAD_TEST_DOMAIN = "@quizforge.test";
+
     @Override
     public void run(String... args) {
         System.out.println("🔧 Starting DataSeeder...");
         
         // Get all users
-        List<User> users = userRepository.findAll();
+        List<User> all = userRepository.findAll();
+        List<User> users = all.stream().filter(user -> !user.getEmail().endsWith(LOAD_TEST_DOMAIN)).toList();
         
         if (users.isEmpty()) {
             // If no users exist, create default admin and candidate
@@ -32,6 +44,10 @@ public class DataSeeder implements CommandLineRunner {
             // Fix passwords for existing users
             fixExistingPasswords(users);
         }
+
+        if (loadTestCandidates > 0) {
+            seedLoadTestCandidates(all);
+        }
         
         System.out.println("✅ DataSeeder completed!");
     }
@@ -58,6 +74,26 @@ public class DataSeeder implements CommandLineRunner {
         System.out.println("✅ Created candidate: candidate@example.com / candidate123");
     }
     
+    private void seedLoadTestCandidates(List<User> all) {
+        Map<String, User> existing = all.stream()
+                .filter(user -> user.getEmail().endsWith(LOAD_TEST_DOMAIN))
+                .collect(Collectors.toMap(User::getEmail, Function.identity()));
+        // One hash shared by all of them, encoding thousands one by one would take minutes
+        String password = passwordEncoder.encode("candidate123");
+        List<User> candidates = new ArrayList<>(loadTestCandidates);
+        for (int i = 1; i <= loadTestCandidates; i++) {
+            String email = "loadtest-" + i + LOAD_TEST_DOMAIN;
+            User candidate = existing.getOrDefault(email, new User());
+            candidate.setEmail(email);
+            candidate.setName("Load Test " + i);
+            candidate.setPassword(password);
+            candidate.setRole(User.Role.CANDIDATE);
+            candidates.add(candidate);
+        }
+        userRepository.saveAll(candidates);
+        System.out.println("✅ Seeded " + loadTestCandidates + " load test candidates: loadtest-N" + LOAD_TEST_DOMAIN + " / candidate123");
+    }
+    
     private void fixExistingPasswords(List<User> users) {
         System.out.println("🔐 RESETTING ALL PASSWORDS TO KNOWN VALUES...");
         
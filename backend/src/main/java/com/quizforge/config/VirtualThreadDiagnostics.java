@@ -0,0 +1,97 @@
+package com.quizforge.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads that stayed pinned to their carrier, which happens when they block
+ * inside synchronized code or a native frame. Listens to the JFR jdk.VirtualThreadPinned event
+ * in process; each pinning site is logged with its stack the first time and every 1000th time after.
+ * Only active in virtual thread mode.
+ */
+@Component
+public class VirtualThreadDiagnostics {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 15;
+
+    private final boolean enabled;
+    private final long thresholdMillis;
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadDiagnostics(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                    @Value("${diagnostics.pinning.enabled:true}") boolean enabled,
+                                    @Value("${diagnostics.pinning.threshold-ms:20}") long thresholdMillis) {
+        this.enabled = virtualThreads && enabled;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        System.out.println("Reporting virtual threads pinned for more than " + thresholdMillis + " ms");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = site(frames);
+        LongAdder count = pinnedBySite.computeIfAbsent(site, key -> new LongAdder());
+        count.increment();
+        long seen = count.sum();
+        if (seen > 1) {
+            if (seen % 1000 == 0) {
+                System.err.println("Virtual threads pinned " + seen + " times at " + site);
+            }
+            return;
+        }
+        StringBuilder message = new StringBuilder("Virtual thread pinned for ")
+                .append(event.getDuration().toMillis()).append(" ms at ").append(site);
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+            message.append("\n\tat ").append(describe(frames.get(i)));
+        }
+        System.err.println(message);
+    }
+
+    // The innermost frame of our own code is what needs fixing, the JDK and driver frames above it rarely are
+    private static String site(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith("com.quizforge.")) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -1,21 +1,33 @@
 package com.quizforge.controller;
 
+import com.quizforge.dto.AdminAttemptResponse;
+import com.quizforge.dto.CursorPage;
 import com.quizforge.dto.DeleteResponse;
 import com.quizforge.dto.QuizAnalyticsResponse;
 import com.quizforge.dto.QuizRequest;
 import com.quizforge.dto.QuizResponse;
+import com.quizforge.dto.QuizSnapshot;
 import com.quizforge.dto.QuizSummaryResponse;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.security.AuthenticatedUser;
 import com.quizforge.service.AdminService;
+import com.quizforge.service.AttemptExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,18 +36,28 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class AdminController {
 
+    // Zero or less means no timeout for the servlet async context
+    private static final long EXPORT_TIMEOUT_NONE = -1;
+
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private AttemptExportService attemptExportService;
+
     @GetMapping
-    @Operation(summary = "Get all quizzes", description = "Retrieve list of all quizzes")
-    public ResponseEntity<List<QuizSummaryResponse>> getAllQuizzes() {
-        return ResponseEntity.ok(adminService.getAllQuizzes());
+    @Operation(summary = "Get all quizzes", description = "Retrieve quizzes newest first, 50 per page unless size is given; " +
+            "pass the X-Next-Cursor response header as cursor for the next page")
+    public ResponseEntity<List<QuizSummaryResponse>> getAllQuizzes(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<QuizSummaryResponse> page = adminService.getAllQuizzes(null, null, cursor, size);
+        return QuizController.withCursor(ResponseEntity.ok(), page.nextCursor()).body(page.items());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get quiz by ID", description = "Retrieve detailed quiz information including questions and correct answers")
-    public ResponseEntity<QuizResponse> getQuizById(@PathVariable Long id) {
+    public ResponseEntity<QuizSnapshot> getQuizById(@PathVariable Long id) {
         return ResponseEntity.ok(adminService.getQuizById(id));
     }
 
@@ -43,9 +65,8 @@ public class AdminController {
     @Operation(summary = "Create new quiz", description = "Create a new quiz with questions and options")
     public ResponseEntity<QuizResponse> createQuiz(
             @Valid @RequestBody QuizRequest request,
-            Authentication authentication) {
-        String adminEmail = authentication.getName();
-        QuizResponse response = adminService.createQuiz(request, adminEmail);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        QuizResponse response = adminService.createQuiz(request, user.id());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -70,9 +91,41 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getQuizAnalytics(id));
     }
 
+    @GetMapping("/analytics")
+    @Operation(summary = "Get analytics overview", description = "View statistics of every quiz in one response")
+    public ResponseEntity<List<QuizAnalyticsResponse>> getAnalyticsOverview() {
+        return ResponseEntity.ok(adminService.getAnalyticsOverview());
+    }
+
     @GetMapping("/attempts/all")
-    @Operation(summary = "Get all attempts", description = "Retrieve all quiz attempts across all quizzes")
-    public ResponseEntity<List<com.quizforge.dto.AdminAttemptResponse>> getAllAttempts() {
-        return ResponseEntity.ok(adminService.getAllAttempts());
+    @Operation(summary = "Get all attempts", description = "Retrieve evaluated attempts across all quizzes, newest first, " +
+            "50 per page unless size is given; pass the X-Next-Cursor response header as cursor for the next page. " +
+            "Use the export to download every attempt")
+    public ResponseEntity<List<AdminAttemptResponse>> getAllAttempts(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AdminAttemptResponse> page = adminService.getAttempts(null, null, null, null, null, cursor, size);
+        return QuizController.withCursor(ResponseEntity.ok(), page.nextCursor()).body(page.items());
+    }
+
+    @GetMapping("/attempts/export")
+    @Operation(summary = "Export attempts", description = "Stream attempts with their answers as CSV or NDJSON, optionally filtered by quiz, status and submission time")
+    public WebAsyncTask<Void> exportAttempts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long quizId,
+            @RequestParam(required = false) QuizAttempt.AttemptStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) {
+        AttemptExportService.Format exportFormat = AttemptExportService.Format.parse(format);
+        StreamingResponseBody body = attemptExportService.export(exportFormat, quizId, status, from, to);
+        response.setContentType(exportFormat.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"attempts." + exportFormat.extension() + "\"");
+        // A large export may run longer than the async request timeout, so only this download has none
+        return new WebAsyncTask<>(EXPORT_TIMEOUT_NONE, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 }
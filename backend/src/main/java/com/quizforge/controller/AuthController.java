@@ -1,16 +1,24 @@
 package com.quizforge.controller;
 
 import com.quizforge.dto.ApiResponse;
+import com.quizforge.dto.LoginMetricsResponse;
 import com.quizforge.dto.LoginRequest;
 import com.quizforge.dto.LoginResponse;
+import com.quizforge.dto.RefreshTokenRequest;
+import com.quizforge.security.AuthenticatedUser;
 import com.quizforge.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Login endpoints - Get JWT token")
@@ -24,8 +32,36 @@ public class AuthController {
         summary = "Login and get JWT token",
         description = "Use admin@quizforge.com for ADMIN role,other email for CANDIDATE role."
     )
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
-        return ResponseEntity.ok(ApiResponse.success("Login successful", response));
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResponse>>> login(@Valid @RequestBody LoginRequest request) {
+        // Completed off the request thread, which goes back to the pool while the password is checked
+        return authService.login(request)
+                .thenApply(response -> ResponseEntity.ok(ApiResponse.success("Login successful", response)));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(
+        summary = "Refresh the JWT token",
+        description = "Exchanges a refresh token for a new JWT and refresh token. Each refresh token works once; reusing one ends its session."
+    )
+    public ResponseEntity<ApiResponse<LoginResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        LoginResponse response = authService.refresh(request);
+        return ResponseEntity.ok(ApiResponse.success("Token refreshed", response));
+    }
+
+    @PostMapping("/logout")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Logout", description = "Revokes the refresh token's session and the JWT sent with the request")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestBody(required = false) RefreshTokenRequest request,
+                                                    @AuthenticationPrincipal AuthenticatedUser user) {
+        authService.logout(request, user);
+        return ResponseEntity.ok(ApiResponse.success("Logged out"));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/metrics")
+    @Operation(summary = "Get login metrics", description = "ADMIN only: Password verification queue depth, rejections and latency")
+    public ResponseEntity<ApiResponse<LoginMetricsResponse>> getLoginMetrics() {
+        return ResponseEntity.ok(ApiResponse.success(authService.getLoginMetrics()));
     }
 }
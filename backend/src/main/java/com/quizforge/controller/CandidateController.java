@@ -1,18 +1,22 @@
 package com.quizforge.controller;
 
 import com.quizforge.dto.AttemptResponse;
+import com.quizforge.dto.CursorPage;
 import com.quizforge.dto.DetailedAttemptResponse;
-import com.quizforge.dto.QuizResponse;
+import com.quizforge.dto.QuizSnapshot;
 import com.quizforge.dto.QuizSummaryResponse;
 import com.quizforge.dto.SubmitQuizRequest;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.security.AuthenticatedUser;
 import com.quizforge.service.CandidateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,23 +31,26 @@ public class CandidateController {
     private CandidateService candidateService;
 
     @GetMapping
-    @Operation(summary = "Get available quizzes", description = "View all active quizzes available for taking")
-    public ResponseEntity<List<QuizSummaryResponse>> getAvailableQuizzes() {
-        return ResponseEntity.ok(candidateService.getAvailableQuizzes());
+    @Operation(summary = "Get available quizzes", description = "View active quizzes available for taking, newest first, " +
+            "50 per page unless size is given; pass the X-Next-Cursor response header as cursor for the next page")
+    public ResponseEntity<List<QuizSummaryResponse>> getAvailableQuizzes(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<QuizSummaryResponse> page = candidateService.getAvailableQuizzes(null, cursor, size);
+        return QuizController.withCursor(ResponseEntity.ok(), page.nextCursor()).body(page.items());
     }
 
     @PostMapping("/{quizId}/start")
     @Operation(summary = "Start a quiz", description = "Begin a new quiz attempt")
     public ResponseEntity<AttemptResponse> startQuiz(
             @PathVariable Long quizId,
-            Authentication authentication) {
-        String candidateEmail = authentication.getName();
-        return ResponseEntity.ok(candidateService.startQuiz(quizId, candidateEmail));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(candidateService.startQuiz(quizId, user.id()));
     }
 
     @GetMapping("/{quizId}")
     @Operation(summary = "Get quiz questions", description = "Retrieve quiz questions for answering (correct answers hidden)")
-    public ResponseEntity<QuizResponse> getQuizForAttempt(@PathVariable Long quizId) {
+    public ResponseEntity<QuizSnapshot> getQuizForAttempt(@PathVariable Long quizId) {
         return ResponseEntity.ok(candidateService.getQuizForAttempt(quizId));
     }
 
@@ -51,24 +58,25 @@ public class CandidateController {
     @Operation(summary = "Submit quiz answers", description = "Submit all answers and get evaluated results")
     public ResponseEntity<AttemptResponse> submitQuiz(
             @Valid @RequestBody SubmitQuizRequest request,
-            Authentication authentication) {
-        String candidateEmail = authentication.getName();
-        return ResponseEntity.ok(candidateService.submitQuiz(request, candidateEmail));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        AttemptResponse response = candidateService.submitQuiz(request, user.id());
+        if (QuizAttempt.AttemptStatus.SUBMITTED.name().equals(response.status())) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        }
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/my-attempts")
     @Operation(summary = "Get my quiz attempts", description = "View all your quiz attempts and scores")
-    public ResponseEntity<List<AttemptResponse>> getMyAttempts(Authentication authentication) {
-        String candidateEmail = authentication.getName();
-        return ResponseEntity.ok(candidateService.getMyAttempts(candidateEmail));
+    public ResponseEntity<List<AttemptResponse>> getMyAttempts(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(candidateService.getMyAttempts(user.id()));
     }
 
     @GetMapping("/attempts/{attemptId}")
     @Operation(summary = "Get attempt result", description = "View detailed results of a specific attempt")
     public ResponseEntity<DetailedAttemptResponse> getAttemptResult(
             @PathVariable Long attemptId,
-            Authentication authentication) {
-        String candidateEmail = authentication.getName();
-        return ResponseEntity.ok(candidateService.getAttemptResult(attemptId, candidateEmail));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(candidateService.getAttemptResult(attemptId, user.id()));
     }
 }
@@ -3,20 +3,28 @@ package com.quizforge.controller;
 import com.quizforge.dto.*;
 import com.quizforge.dto.DetailedAttemptResponse;
 import com.quizforge.dto.CandidateAnswerResponse;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.security.AuthenticatedUser;
 import com.quizforge.service.AdminService;
 import com.quizforge.service.CandidateService;
+import com.quizforge.service.ItemAnalysisService;
+import com.quizforge.service.LeaderboardService;
+import com.quizforge.service.RegradeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,36 +33,62 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class QuizController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private AdminService adminService;
 
     @Autowired
     private CandidateService candidateService;
 
+    @Autowired
+    private RegradeService regradeService;
+
+    @Autowired
+    private ItemAnalysisService itemAnalysisService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     private boolean isAdmin(Authentication authentication) {
         return authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .anyMatch(role -> role.equals("ROLE_ADMIN"));
     }
 
+    // Keyset paging keeps the list payload unchanged and reports the next page in a header
+    static ResponseEntity.BodyBuilder withCursor(ResponseEntity.BodyBuilder builder, Long nextCursor) {
+        if (nextCursor != null) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor.toString());
+        }
+        return builder;
+    }
+
     @GetMapping
-    @Operation(summary = "Get quizzes", description = "ADMIN: Get all quizzes, CANDIDATE: Get active quizzes only")
-    public ResponseEntity<ApiResponse<List<QuizSummaryResponse>>> getQuizzes(Authentication authentication) {
-        List<QuizSummaryResponse> quizzes;
+    @Operation(summary = "Get quizzes", description = "ADMIN: Get all quizzes, CANDIDATE: Get active quizzes only. " +
+            "Newest first, 50 per page unless size is given; pass the X-Next-Cursor response header as cursor for the next page")
+    public ResponseEntity<ApiResponse<List<QuizSummaryResponse>>> getQuizzes(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String search,
+            Authentication authentication) {
+        CursorPage<QuizSummaryResponse> page;
         if (isAdmin(authentication)) {
-            quizzes = adminService.getAllQuizzes();
+            page = adminService.getAllQuizzes(active, search, cursor, size);
         } else {
-            quizzes = candidateService.getAvailableQuizzes();
+            page = candidateService.getAvailableQuizzes(search, cursor, size);
         }
-        return ResponseEntity.ok(ApiResponse.success(quizzes));
+        return withCursor(ResponseEntity.ok(), page.nextCursor())
+                .body(ApiResponse.success(page.items()));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get quiz by ID", description = "ADMIN: Get with correct answers, CANDIDATE: Get without correct answers")
-    public ResponseEntity<ApiResponse<QuizResponse>> getQuizById(
+    public ResponseEntity<ApiResponse<QuizSnapshot>> getQuizById(
             @PathVariable Long id,
             Authentication authentication) {
-        QuizResponse quiz;
+        QuizSnapshot quiz;
         if (isAdmin(authentication)) {
             quiz = adminService.getQuizById(id);
         } else {
@@ -68,9 +102,8 @@ public class QuizController {
     @Operation(summary = "Create new quiz", description = "ADMIN only: Create a new quiz with questions and options")
     public ResponseEntity<ApiResponse<QuizResponse>> createQuiz(
             @Valid @RequestBody QuizRequest request,
-            Authentication authentication) {
-        String email = authentication.getName();
-        QuizResponse response = adminService.createQuiz(request, email);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        QuizResponse response = adminService.createQuiz(request, user.id());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Quiz created successfully", response));
     }
@@ -101,6 +134,70 @@ public class QuizController {
         return ResponseEntity.ok(ApiResponse.success(analytics));
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/analytics")
+    @Operation(summary = "Get analytics overview", description = "ADMIN only: Statistics of every quiz in one response")
+    public ResponseEntity<ApiResponse<List<QuizAnalyticsResponse>>> getAnalyticsOverview() {
+        return ResponseEntity.ok(ApiResponse.success(adminService.getAnalyticsOverview()));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/analytics/items")
+    @Operation(summary = "Get item analysis", description = "ADMIN only: Difficulty, discrimination and option choice rates per question")
+    public ResponseEntity<ApiResponse<ItemAnalysisResponse>> getItemAnalysis(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(itemAnalysisService.getItemAnalysis(id)));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/analytics/histogram")
+    @Operation(summary = "Get score histogram", description = "ADMIN only: Distribution of evaluated scores in equal-width buckets")
+    public ResponseEntity<ApiResponse<ScoreHistogramResponse>> getScoreHistogram(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer buckets) {
+        return ResponseEntity.ok(ApiResponse.success(adminService.getScoreHistogram(id, buckets)));
+    }
+
+    @GetMapping("/{id}/leaderboard")
+    @Operation(summary = "Get quiz leaderboard", description = "Best evaluated attempts by score, ties ranked by time taken. " +
+            "ADMIN: with candidates, CANDIDATE: anonymous except for the caller's own entries")
+    public ResponseEntity<ApiResponse<LeaderboardResponse>> getLeaderboard(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            Authentication authentication) {
+        Long viewerId = isAdmin(authentication) ? null : user.id();
+        return ResponseEntity.ok(ApiResponse.success(leaderboardService.getLeaderboard(id, limit, viewerId)));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/analytics/rebuild")
+    @Operation(summary = "Rebuild analytics", description = "ADMIN only: Recompute the statistics of every quiz from its attempts")
+    public ResponseEntity<ApiResponse<List<QuizAnalyticsResponse>>> rebuildAnalytics() {
+        return ResponseEntity.ok(ApiResponse.success("Analytics rebuilt", adminService.rebuildAnalytics()));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/analytics/rebuild")
+    @Operation(summary = "Rebuild quiz analytics", description = "ADMIN only: Recompute the statistics of a quiz from its attempts")
+    public ResponseEntity<ApiResponse<QuizAnalyticsResponse>> rebuildQuizAnalytics(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success("Analytics rebuilt", adminService.rebuildQuizAnalytics(id)));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/regrade")
+    @Operation(summary = "Regrade quiz", description = "ADMIN only: Rescore all evaluated attempts against the current answer key")
+    public ResponseEntity<ApiResponse<RegradeJobResponse>> startRegrade(@PathVariable Long id) {
+        RegradeJobResponse job = regradeService.startRegrade(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Regrade started", job));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/regrade")
+    @Operation(summary = "Get regrade progress", description = "ADMIN only: Progress of the latest regrade job of a quiz")
+    public ResponseEntity<ApiResponse<RegradeJobResponse>> getRegrade(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(regradeService.getRegrade(id)));
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/{id}/editable")
     @Operation(summary = "Check if quiz is editable", description = "ADMIN only: Check if quiz structure can be modified (no attempts)")
@@ -121,43 +218,73 @@ public class QuizController {
     @Operation(summary = "Start a quiz", description = "CANDIDATE: Begin a new quiz attempt")
     public ResponseEntity<ApiResponse<AttemptResponse>> startQuiz(
             @PathVariable Long quizId,
-            Authentication authentication) {
-        String email = authentication.getName();
-        AttemptResponse response = candidateService.startQuiz(quizId, email);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        AttemptResponse response = candidateService.startQuiz(quizId, user.id());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Quiz attempt started", response));
     }
 
     @PostMapping("/submit")
-    @Operation(summary = "Submit quiz answers", description = "CANDIDATE: Submit all answers and get evaluated results")
+    @Operation(summary = "Submit quiz answers", description = "CANDIDATE: Submit all answers and get evaluated results. " +
+            "With asynchronous grading enabled the attempt comes back SUBMITTED with 202 Accepted; poll its status until EVALUATED")
     public ResponseEntity<ApiResponse<AttemptResponse>> submitQuiz(
             @Valid @RequestBody SubmitQuizRequest request,
-            Authentication authentication) {
-        String email = authentication.getName();
-        AttemptResponse response = candidateService.submitQuiz(request, email);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        AttemptResponse response = candidateService.submitQuiz(request, user.id());
+        if (QuizAttempt.AttemptStatus.SUBMITTED.name().equals(response.status())) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Quiz submitted, grading in progress", response));
+        }
         return ResponseEntity.ok(ApiResponse.success("Quiz submitted successfully", response));
     }
 
+    @PutMapping("/attempts/{attemptId}/answers")
+    @Operation(summary = "Autosave an answer", description = "CANDIDATE: Save or replace the answer to one question while the attempt is in progress")
+    public ResponseEntity<ApiResponse<Void>> autosaveAnswer(
+            @PathVariable Long attemptId,
+            @Valid @RequestBody AnswerRequest answer,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        candidateService.autosaveAnswer(attemptId, answer, user.id());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Answer saved"));
+    }
+
     @GetMapping("/attempts")
-    @Operation(summary = "Get quiz attempts", description = "ADMIN: Get all attempts, CANDIDATE: Get my attempts only")
-    public ResponseEntity<ApiResponse<List<?>>> getAttempts(Authentication authentication) {
-        if (isAdmin(authentication)) {
-            List<com.quizforge.dto.AdminAttemptResponse> attempts = adminService.getAllAttempts();
-            return ResponseEntity.ok(ApiResponse.success(attempts));
+    @Operation(summary = "Get quiz attempts", description = "ADMIN: Get all attempts, newest first, filtered by quiz, user, " +
+            "status (default EVALUATED) and submission time, 50 per page unless size is given; pass the X-Next-Cursor " +
+            "response header as cursor for the next page. CANDIDATE: Get my attempts only")
+    public ResponseEntity<ApiResponse<List<?>>> getAttempts(
+            @RequestParam(required = false) Long quizId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) QuizAttempt.AttemptStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user.isAdmin()) {
+            CursorPage<AdminAttemptResponse> page = adminService.getAttempts(quizId, userId, status, from, to, cursor, size);
+            return withCursor(ResponseEntity.ok(), page.nextCursor())
+                    .body(ApiResponse.success(page.items()));
         } else {
-            String email = authentication.getName();
-            List<AttemptResponse> attempts = candidateService.getMyAttempts(email);
+            List<AttemptResponse> attempts = candidateService.getMyAttempts(user.id());
             return ResponseEntity.ok(ApiResponse.success(attempts));
         }
     }
 
+    @GetMapping("/attempts/{attemptId}/status")
+    @Operation(summary = "Get attempt status", description = "CANDIDATE: Poll the status and score of an attempt")
+    public ResponseEntity<ApiResponse<AttemptResponse>> getAttemptStatus(
+            @PathVariable Long attemptId,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(ApiResponse.success(candidateService.getAttemptStatus(attemptId, user.id())));
+    }
+
     @GetMapping("/attempts/{attemptId}")
     @Operation(summary = "Get attempt result", description = "View detailed results of a specific attempt")
     public ResponseEntity<ApiResponse<DetailedAttemptResponse>> getAttemptResult(
             @PathVariable Long attemptId,
-            Authentication authentication) {
-        String email = authentication.getName();
-        DetailedAttemptResponse response = candidateService.getAttemptResult(attemptId, email);
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        DetailedAttemptResponse response = candidateService.getAttemptResult(attemptId, user.id());
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
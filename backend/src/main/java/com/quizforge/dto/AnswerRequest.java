@@ -1,6 +1,9 @@
 package com.quizforge.dto;
 
+import jakarta.validation.constraints.NotNull;
+
 public record AnswerRequest(
+    @NotNull(message = "Question id is required")
     Long questionId,
     Long selectedOptionId,
     String textAnswer
@@ -12,5 +12,6 @@ public record AttemptResponse(
     Integer totalPoints,
     String status,
     Long timeTakenMinutes,
-    Boolean exceededTimeLimit
+    Boolean exceededTimeLimit,
+    Double percentile // share of evaluated attempts of the quiz that scored lower, in percent
 ) {}
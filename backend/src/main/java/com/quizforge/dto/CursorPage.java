@@ -0,0 +1,25 @@
+package com.quizforge.dto;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextCursor is the key to pass as cursor for the following page, null on the last page.
+ */
+public record CursorPage<T>(
+    List<T> items,
+    Long nextCursor
+) {
+    /**
+     * Builds a page from a query that fetched one row more than requested,
+     * the extra row only tells whether another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, Integer size, ToLongFunction<T> key) {
+        if (size == null || rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, key.applyAsLong(items.get(size - 1)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.quizforge.dto;
+
+import java.util.List;
+
+public record ItemAnalysisResponse(
+    Long quizId,
+    String quizTitle,
+    Long totalAttempts,
+    List<QuestionItemAnalysis> questions
+) {}
@@ -0,0 +1,14 @@
+package com.quizforge.dto;
+
+import java.time.LocalDateTime;
+
+public record LeaderboardEntry(
+    Integer rank,
+    Long attemptId,
+    Long userId,
+    String candidateName,
+    Integer score,
+    Integer totalPoints,
+    Long timeTakenMinutes,
+    LocalDateTime submittedAt
+) {}
@@ -0,0 +1,8 @@
+package com.quizforge.dto;
+
+import java.util.List;
+
+public record LeaderboardResponse(
+    Long quizId,
+    List<LeaderboardEntry> entries
+) {}
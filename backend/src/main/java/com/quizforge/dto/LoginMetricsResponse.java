@@ -0,0 +1,15 @@
+package com.quizforge.dto;
+
+public record LoginMetricsResponse(
+    Integer bcryptStrength,
+    Integer workers,
+    Integer queueCapacity,
+    Integer queueDepth,
+    Integer activeVerifications,
+    Long verified,
+    Long rejected,
+    Long rehashed,
+    Double averageWaitMillis,
+    Double averageVerifyMillis,
+    Double maxVerifyMillis
+) {}
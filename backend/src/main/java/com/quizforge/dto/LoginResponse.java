@@ -4,5 +4,7 @@ public record LoginResponse(
     String token,
     String email,
     String name,
-    String role
+    String role,
+    String refreshToken,
+    Long expiresIn // seconds until the access token expires
 ) {}
@@ -0,0 +1,9 @@
+package com.quizforge.dto;
+
+public record OptionItemAnalysis(
+    Long optionId,
+    String optionText,
+    Boolean isCorrect,
+    Long timesChosen,
+    Double chosenRate // share of evaluated attempts that picked this option
+) {}
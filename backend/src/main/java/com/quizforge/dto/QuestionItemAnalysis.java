@@ -0,0 +1,14 @@
+package com.quizforge.dto;
+
+import java.util.List;
+
+public record QuestionItemAnalysis(
+    Long questionId,
+    String questionText,
+    String type,
+    Long answered,
+    Long correct,
+    Double difficulty,     // p-value: share of evaluated attempts that got the question right
+    Double discrimination, // point-biserial correlation with the attempt score, null when undefined
+    List<OptionItemAnalysis> options
+) {}
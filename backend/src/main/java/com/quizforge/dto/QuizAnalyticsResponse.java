@@ -6,5 +6,8 @@ public record QuizAnalyticsResponse(
     Integer totalAttempts,
     Double averageScore,
     Integer highestScore,
-    Integer lowestScore
+    Integer lowestScore,
+    Double scoreStdDev,
+    Double passRate, // share of attempts at or above quiz.analytics.pass-percentage, 0..1
+    Long exceededTimeLimitCount
 ) {}
@@ -0,0 +1,55 @@
+package com.quizforge.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.IOException;
+
+/**
+ * A {@link QuizResponse} that has already been serialized to JSON.
+ * Jackson writes the cached UTF-8 bytes verbatim, so serving a snapshot
+ * costs a single array copy instead of walking the DTO graph again.
+ */
+@Schema(implementation = QuizResponse.class)
+public final class QuizSnapshot extends JsonSerializable.Base {
+
+    private final Long quizId;
+    private final SerializedString json;
+
+    public QuizSnapshot(Long quizId, String json) {
+        this.quizId = quizId;
+        this.json = new SerializedString(json);
+        // Encode once up front; SerializedString keeps the bytes for every later write
+        this.json.asUnquotedUTF8();
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    /**
+     * Raw UTF-8 JSON of the quiz. The array is shared, callers must not modify it.
+     */
+    public byte[] toBytes() {
+        return json.asUnquotedUTF8();
+    }
+
+    public int size() {
+        return json.asUnquotedUTF8().length;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -0,0 +1,16 @@
+package com.quizforge.dto;
+
+import java.time.LocalDateTime;
+
+public record RegradeJobResponse(
+    Long jobId,
+    Long quizId,
+    String status, // RUNNING, COMPLETED, FAILED
+    Long totalAttempts,
+    Long processedAttempts,
+    Long changedAttempts,
+    Long changedAnswers,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    String error
+) {}
@@ -0,0 +1,7 @@
+package com.quizforge.dto;
+
+public record ScoreBucket(
+    Integer minScore, // inclusive
+    Integer maxScore, // inclusive
+    Long count
+) {}
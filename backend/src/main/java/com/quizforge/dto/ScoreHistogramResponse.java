@@ -0,0 +1,10 @@
+package com.quizforge.dto;
+
+import java.util.List;
+
+public record ScoreHistogramResponse(
+    Long quizId,
+    Integer totalPoints,
+    Long totalAttempts,
+    List<ScoreBucket> buckets
+) {}
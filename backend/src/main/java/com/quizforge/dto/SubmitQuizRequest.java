@@ -4,5 +4,6 @@ import java.util.List;
 
 public record SubmitQuizRequest(
     Long attemptId,
-    List<AnswerRequest> answers
+    List<AnswerRequest> answers,
+    String idempotencyKey // Optional: retries with the same key return the first result
 ) {}
@@ -0,0 +1,12 @@
+package com.quizforge.exception;
+
+/**
+ * Exception thrown when a request clashes with the current state of a resource
+ * Example: Submitting an attempt that was already submitted
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.quizforge.exception;
+
+/**
+ * Exception thrown when an authenticated user acts on a resource they don't own
+ * Example: Reading or submitting another candidate's attempt
+ */
+public class ForbiddenException extends RuntimeException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.quizforge.exception;
+
+/**
+ * Exception thrown when the server sheds load instead of queueing more work
+ * Example: Login verification pool saturated
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,191 @@
+package com.quizforge.grading;
+
+import com.quizforge.model.Option;
+import com.quizforge.model.Question;
+import com.quizforge.model.Quiz;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, compiled answer key of one quiz.
+ * Ids are kept in sorted primitive arrays and looked up by binary search,
+ * so grading needs neither entities nor boxing. Short answer questions carry
+ * a compiled {@link ShortAnswerMatcher}; their options are accepted answers,
+ * not choices, so they are left out of the option index. A short answer question
+ * without accepted answers has no matcher and is not graded at all.
+ */
+public final class AnswerKey {
+
+    /**
+     * Returned by {@link #pointsFor} for an answer there is nothing to grade against.
+     */
+    public static final int UNGRADED = -1;
+
+    private final long quizId;
+    private final long[] questionIds;     // sorted
+    private final int[] questionPoints;   // parallel to questionIds
+    private final long[] optionIds;       // sorted
+    private final int[] optionQuestion;   // index into questionIds, parallel to optionIds
+    private final boolean[] optionCorrect; // parallel to optionIds
+    private final ShortAnswerMatcher[] matchers; // parallel to questionIds, null unless SHORT_ANSWER
+    private final boolean[] shortAnswer;  // parallel to questionIds
+    private final int totalPoints;
+
+    private AnswerKey(long quizId, long[] questionIds, int[] questionPoints,
+                      long[] optionIds, int[] optionQuestion, boolean[] optionCorrect,
+                      ShortAnswerMatcher[] matchers, boolean[] shortAnswer) {
+        this.quizId = quizId;
+        this.questionIds = questionIds;
+        this.questionPoints = questionPoints;
+        this.optionIds = optionIds;
+        this.optionQuestion = optionQuestion;
+        this.optionCorrect = optionCorrect;
+        this.matchers = matchers;
+        this.shortAnswer = shortAnswer;
+        this.totalPoints = Arrays.stream(questionPoints).sum();
+    }
+
+    /**
+     * Compiles the key from a quiz whose questions and options are initialized.
+     */
+    public static AnswerKey compile(Quiz quiz) {
+        List<Question> questions = quiz.getQuestions().stream()
+                .sorted(Comparator.comparing(Question::getId))
+                .toList();
+
+        long[] questionIds = new long[questions.size()];
+        int[] questionPoints = new int[questions.size()];
+        ShortAnswerMatcher[] matchers = new ShortAnswerMatcher[questions.size()];
+        boolean[] shortAnswer = new boolean[questions.size()];
+        int optionCount = 0;
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            questionIds[i] = question.getId();
+            questionPoints[i] = question.getPoints();
+            if (question.getType() == Question.QuestionType.SHORT_ANSWER) {
+                shortAnswer[i] = true;
+                matchers[i] = compileMatcher(question);
+            } else {
+                optionCount += question.getOptions().size();
+            }
+        }
+
+        // Sort option slots by id, then fill the parallel arrays in that order
+        long[][] options = new long[optionCount][];
+        int next = 0;
+        for (int i = 0; i < questions.size(); i++) {
+            if (shortAnswer[i]) {
+                continue;
+            }
+            for (Option option : questions.get(i).getOptions()) {
+                options[next++] = new long[]{option.getId(), i, Boolean.TRUE.equals(option.getIsCorrect()) ? 1 : 0};
+            }
+        }
+        Arrays.sort(options, Comparator.comparingLong(o -> o[0]));
+
+        long[] optionIds = new long[optionCount];
+        int[] optionQuestion = new int[optionCount];
+        boolean[] optionCorrect = new boolean[optionCount];
+        for (int i = 0; i < optionCount; i++) {
+            optionIds[i] = options[i][0];
+            optionQuestion[i] = (int) options[i][1];
+            optionCorrect[i] = options[i][2] == 1;
+        }
+
+        return new AnswerKey(quiz.getId(), questionIds, questionPoints, optionIds, optionQuestion, optionCorrect, matchers, shortAnswer);
+    }
+
+    /**
+     * Compiles the correct options of a short answer question into a matcher,
+     * or returns null when the question has none; older questions were saved without any.
+     */
+    public static ShortAnswerMatcher compileMatcher(Question question) {
+        List<String> accepted = question.getOptions().stream()
+                .filter(option -> Boolean.TRUE.equals(option.getIsCorrect()))
+                .map(Option::getOptionText)
+                .toList();
+        return accepted.isEmpty() ? null : ShortAnswerMatcher.compile(accepted);
+    }
+
+    public long quizId() {
+        return quizId;
+    }
+
+    public int questionCount() {
+        return questionIds.length;
+    }
+
+    public int totalPoints() {
+        return totalPoints;
+    }
+
+    /**
+     * @return index of the question in this key, or -1 if it is not part of the quiz
+     */
+    public int questionIndex(long questionId) {
+        int index = Arrays.binarySearch(questionIds, questionId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @return index of the option in this key, or -1 if it is not part of the quiz
+     */
+    public int optionIndex(long optionId) {
+        int index = Arrays.binarySearch(optionIds, optionId);
+        return index >= 0 ? index : -1;
+    }
+
+    public int optionCount() {
+        return optionIds.length;
+    }
+
+    public long questionId(int questionIndex) {
+        return questionIds[questionIndex];
+    }
+
+    public int points(int questionIndex) {
+        return questionPoints[questionIndex];
+    }
+
+    public boolean belongsTo(int optionIndex, int questionIndex) {
+        return optionQuestion[optionIndex] == questionIndex;
+    }
+
+    public boolean isCorrect(int optionIndex) {
+        return optionCorrect[optionIndex];
+    }
+
+    /**
+     * @return the matcher of a short answer question, or null for choice questions and ungraded short answers
+     */
+    public ShortAnswerMatcher matcher(int questionIndex) {
+        return matchers[questionIndex];
+    }
+
+    /**
+     * Grades a single answer.
+     *
+     * @return the question's points if the answer is correct, {@link #UNGRADED} for a short answer
+     * question without accepted answers, otherwise 0
+     */
+    public int pointsFor(long questionId, Long selectedOptionId, String textAnswer) {
+        int questionIndex = questionIndex(questionId);
+        if (questionIndex < 0) {
+            return 0;
+        }
+        boolean correct;
+        if (shortAnswer[questionIndex] && matchers[questionIndex] == null) {
+            return UNGRADED;
+        } else if (matchers[questionIndex] != null) {
+            correct = matchers[questionIndex].matches(textAnswer);
+        } else if (selectedOptionId != null) {
+            int optionIndex = optionIndex(selectedOptionId);
+            correct = optionIndex >= 0 && belongsTo(optionIndex, questionIndex) && optionCorrect[optionIndex];
+        } else {
+            correct = false;
+        }
+        return correct ? questionPoints[questionIndex] : 0;
+    }
+}
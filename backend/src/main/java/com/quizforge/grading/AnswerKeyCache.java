@@ -0,0 +1,125 @@
+package com.quizforge.grading;
+
+import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.repository.QuizRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of compiled answer keys by quiz id.
+ * A key is built on first use and kept until the quiz structure changes or it is evicted,
+ * concurrent misses for the same quiz wait on the single in-flight compile.
+ */
+@Component
+public class AnswerKeyCache {
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    private final TransactionTemplate readOnlyTx;
+
+    private final int maxEntries;
+
+    // Access-ordered so the eldest entry is the least recently used one; guarded by this
+    private final LinkedHashMap<Long, AnswerKey> keys;
+
+    private final Map<Long, CompletableFuture<AnswerKey>> loading = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so compiles that raced with an update are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public AnswerKeyCache(PlatformTransactionManager transactionManager,
+                          @Value("${quiz.answer-key-cache.max-entries:1000}") int maxEntries) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxEntries = maxEntries;
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AnswerKey> eldest) {
+                return size() > AnswerKeyCache.this.maxEntries;
+            }
+        };
+    }
+
+    public AnswerKey get(Long quizId) {
+        AnswerKey cached = lookup(quizId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // The query runs outside any map lock, other quizzes never wait on it
+        CompletableFuture<AnswerKey> build = new CompletableFuture<>();
+        CompletableFuture<AnswerKey> inFlight = loading.putIfAbsent(quizId, build);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            long startGeneration = generation.get();
+            AnswerKey key = readOnlyTx.execute(status ->
+                    AnswerKey.compile(quizRepository.findFullById(quizId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Quiz", quizId))));
+            synchronized (this) {
+                if (generation.get() == startGeneration) {
+                    keys.put(quizId, key);
+                }
+            }
+            build.complete(key);
+            return key;
+        } catch (RuntimeException e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(quizId, build);
+        }
+    }
+
+    /**
+     * Drops the key now and again after the surrounding transaction commits.
+     */
+    public void evict(Long quizId) {
+        remove(quizId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(quizId);
+                }
+            });
+        }
+    }
+
+    private synchronized AnswerKey lookup(Long quizId) {
+        return keys.get(quizId);
+    }
+
+    private void remove(Long quizId) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            keys.remove(quizId);
+        }
+    }
+
+    private static AnswerKey await(CompletableFuture<AnswerKey> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
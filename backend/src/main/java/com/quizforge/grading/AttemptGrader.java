@@ -0,0 +1,145 @@
+package com.quizforge.grading;
+
+import com.quizforge.dto.AnswerRequest;
+import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.model.Answer;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.repository.OptionRepository;
+import com.quizforge.repository.QuestionRepository;
+import com.quizforge.service.ItemAnalysisService;
+import com.quizforge.service.LeaderboardService;
+import com.quizforge.service.QuizStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns submitted answers into Answer rows and scores attempts against the compiled answer key.
+ * Questions and options are only referenced by id, grading never loads them.
+ */
+@Component
+public class AttemptGrader {
+
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private OptionRepository optionRepository;
+
+    @Autowired
+    private QuizStatsService quizStatsService;
+
+    @Autowired
+    private ItemAnalysisService itemAnalysisService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    /**
+     * Checks that the question and the selected option belong to the quiz.
+     */
+    public void validate(Long quizId, AnswerRequest ansReq) {
+        validate(answerKeyCache.get(quizId), ansReq);
+    }
+
+    /**
+     * Validates the raw answers against the quiz and applies them, ungraded, to the attempt.
+     * An answer to a question that already has one replaces it, so autosaved answers and
+     * the final submission can be merged in any order.
+     *
+     * @return the answers that did not exist before, for the caller to persist
+     */
+    public List<Answer> recordAnswers(QuizAttempt attempt, Collection<AnswerRequest> requests) {
+        AnswerKey answerKey = answerKeyCache.get(attempt.getQuiz().getId());
+        Map<Long, Answer> byQuestion = new HashMap<>();
+        for (Answer existing : attempt.getAnswers()) {
+            byQuestion.put(existing.getQuestion().getId(), existing);
+        }
+        List<Answer> created = new ArrayList<>();
+
+        for (AnswerRequest ansReq : requests) {
+            validate(answerKey, ansReq);
+
+            Answer answer = byQuestion.get(ansReq.questionId());
+            if (answer == null) {
+                answer = new Answer();
+                answer.setAttempt(attempt);
+                answer.setQuestion(questionRepository.getReferenceById(ansReq.questionId()));
+                attempt.getAnswers().add(answer);
+                byQuestion.put(ansReq.questionId(), answer);
+                created.add(answer);
+            }
+
+            answer.setSelectedOption(ansReq.selectedOptionId() != null
+                    ? optionRepository.getReferenceById(ansReq.selectedOptionId())
+                    : null);
+            answer.setTextAnswer(ansReq.textAnswer());
+        }
+        return created;
+    }
+
+    static void validate(AnswerKey answerKey, AnswerRequest ansReq) {
+        int questionIndex = ansReq.questionId() != null ? answerKey.questionIndex(ansReq.questionId()) : -1;
+        if (questionIndex < 0) {
+            throw new ResourceNotFoundException("Question", ansReq.questionId());
+        }
+        if (ansReq.selectedOptionId() != null) {
+            int optionIndex = answerKey.optionIndex(ansReq.selectedOptionId());
+            if (optionIndex < 0 || !answerKey.belongsTo(optionIndex, questionIndex)) {
+                throw new ResourceNotFoundException("Option", ansReq.selectedOptionId());
+            }
+        }
+    }
+
+    /**
+     * Scores every answer of the attempt, marks it EVALUATED and counts it in the quiz and item statistics
+     * and offers it to the quiz leaderboard.
+     * Short answers are checked against the question's compiled matcher; without one they stay ungraded.
+     */
+    public void grade(QuizAttempt attempt) {
+        AnswerKey answerKey = answerKeyCache.get(attempt.getQuiz().getId());
+        int totalScore = 0;
+        int count = attempt.getAnswers().size();
+        long[] questionIds = new long[count];
+        long[] selectedOptionIds = new long[count];
+        boolean[] correct = new boolean[count];
+
+        int i = 0;
+        for (Answer answer : attempt.getAnswers()) {
+            answer.setIsCorrect(false);
+            answer.setPointsEarned(0);
+
+            // getId() on an uninitialized proxy does not hit the database
+            Long selectedOptionId = answer.getSelectedOption() != null ? answer.getSelectedOption().getId() : null;
+            int points = answerKey.pointsFor(answer.getQuestion().getId(), selectedOptionId, answer.getTextAnswer());
+            if (points == AnswerKey.UNGRADED) {
+                // Short answer without accepted answers, left for manual grading
+                answer.setIsCorrect(null);
+                points = 0;
+            } else if (points > 0) {
+                answer.setIsCorrect(true);
+                answer.setPointsEarned(points);
+                totalScore += points;
+            }
+            questionIds[i] = answer.getQuestion().getId();
+            selectedOptionIds[i] = selectedOptionId != null ? selectedOptionId : 0;
+            correct[i++] = points > 0;
+        }
+
+        attempt.setScore(totalScore);
+        attempt.setStatus(QuizAttempt.AttemptStatus.EVALUATED);
+        quizStatsService.recordAfterCommit(answerKey.quizId(), attempt.getId(), totalScore, attempt.getTotalPoints(),
+                Boolean.TRUE.equals(attempt.getExceededTimeLimit()));
+        itemAnalysisService.recordAfterCommit(answerKey, attempt.getId(), totalScore, questionIds, selectedOptionIds, correct);
+        leaderboardService.recordAfterCommit(answerKey.quizId(), attempt.getId(), attempt.getUser().getId(), totalScore,
+                attempt.getTotalPoints(), attempt.getTimeTakenMinutes(), attempt.getSubmittedAt());
+    }
+}
@@ -0,0 +1,117 @@
+package com.quizforge.grading;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over up to 64 keywords.
+ * One pass over the text reports which keywords occur as a bit mask, whatever
+ * the number of keywords. Transitions are stored per state as sorted char arrays.
+ */
+final class KeywordAutomaton {
+
+    static final int MAX_KEYWORDS = Long.SIZE;
+
+    private final char[][] labels;   // per state, sorted transition chars
+    private final int[][] targets;   // per state, parallel to labels
+    private final int[] fail;
+    private final long[] output;     // keywords ending in each state, including via fail links
+
+    private KeywordAutomaton(char[][] labels, int[][] targets, int[] fail, long[] output) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.output = output;
+    }
+
+    static KeywordAutomaton build(List<String> keywords) {
+        if (keywords.size() > MAX_KEYWORDS) {
+            throw new IllegalArgumentException("At most " + MAX_KEYWORDS + " keywords per question are supported");
+        }
+
+        // Trie first, with ordered maps so the compiled transitions come out sorted
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Long> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(0L);
+        for (int k = 0; k < keywords.size(); k++) {
+            int state = 0;
+            for (char c : keywords.get(k).toCharArray()) {
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(0L);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.set(state, outputs.get(state) | 1L << k);
+        }
+
+        int size = trie.size();
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        long[] output = new long[size];
+        for (int s = 0; s < size; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            labels[s] = new char[edges.size()];
+            targets[s] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                labels[s][i] = edge.getKey();
+                targets[s][i++] = edge.getValue();
+            }
+            output[s] = outputs.get(s);
+        }
+
+        // Breadth-first so a state's fail target is always finished before the state itself
+        int[] fail = new int[size];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                int f = fail[state];
+                int next;
+                while ((next = step(labels, targets, f, labels[state][i])) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = next >= 0 && next != child ? next : 0;
+                output[child] |= output[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new KeywordAutomaton(labels, targets, fail, output);
+    }
+
+    /**
+     * @return bit k is set when keyword k occurs in the text
+     */
+    long scan(CharSequence text) {
+        long found = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(labels, targets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            found |= output[state];
+        }
+        return found;
+    }
+
+    private static int step(char[][] labels, int[][] targets, int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+}
@@ -0,0 +1,197 @@
+package com.quizforge.grading;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiled accepted answers of one SHORT_ANSWER question.
+ * Accepted answers are the question's correct options, one rule per option text:
+ * <ul>
+ *   <li>{@code Paris} - exact match after normalization</li>
+ *   <li>{@code ~photosynthesis} - within a few typos (edit distance of about one per five characters, at most three)</li>
+ *   <li>{@code kw: mitochondria, energy} - every listed keyword appears as a whole word, in any order</li>
+ * </ul>
+ * Normalization lower-cases, strips accents and punctuation and collapses whitespace,
+ * so rules and answers compare equal regardless of formatting.
+ */
+public final class ShortAnswerMatcher {
+
+    static final String FUZZY_PREFIX = "~";
+    static final String KEYWORDS_PREFIX = "kw:";
+
+    private static final int MAX_EDITS = 3;
+
+    private final Set<String> exact;
+    private final String[] fuzzy;
+    private final int[] fuzzyEdits;   // parallel to fuzzy
+    private final KeywordAutomaton keywords; // null without keyword rules
+    private final long[] keywordSets; // one mask of required keywords per rule
+
+    private ShortAnswerMatcher(Set<String> exact, String[] fuzzy, int[] fuzzyEdits,
+                               KeywordAutomaton keywords, long[] keywordSets) {
+        this.exact = exact;
+        this.fuzzy = fuzzy;
+        this.fuzzyEdits = fuzzyEdits;
+        this.keywords = keywords;
+        this.keywordSets = keywordSets;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a rule is empty or a question has too many keywords
+     */
+    public static ShortAnswerMatcher compile(List<String> acceptedAnswers) {
+        Set<String> exact = new HashSet<>();
+        List<String> fuzzy = new ArrayList<>();
+        List<String> keywordList = new ArrayList<>();
+        List<Long> keywordSets = new ArrayList<>();
+
+        for (String rule : acceptedAnswers) {
+            String trimmed = rule.strip();
+            if (trimmed.regionMatches(true, 0, KEYWORDS_PREFIX, 0, KEYWORDS_PREFIX.length())) {
+                long mask = 0;
+                for (String keyword : trimmed.substring(KEYWORDS_PREFIX.length()).split(",")) {
+                    String normalized = normalize(keyword);
+                    if (normalized.isEmpty()) {
+                        continue;
+                    }
+                    // Padded with spaces so keywords only match whole words of the padded answer
+                    String padded = " " + normalized + " ";
+                    int index = keywordList.indexOf(padded);
+                    if (index < 0) {
+                        index = keywordList.size();
+                        keywordList.add(padded);
+                    }
+                    if (index < KeywordAutomaton.MAX_KEYWORDS) {
+                        mask |= 1L << index;
+                    }
+                }
+                requireNonEmpty(mask != 0, rule);
+                keywordSets.add(mask);
+            } else if (trimmed.startsWith(FUZZY_PREFIX)) {
+                String normalized = normalize(trimmed.substring(FUZZY_PREFIX.length()));
+                requireNonEmpty(!normalized.isEmpty(), rule);
+                fuzzy.add(normalized);
+            } else {
+                String normalized = normalize(trimmed);
+                requireNonEmpty(!normalized.isEmpty(), rule);
+                exact.add(normalized);
+            }
+        }
+
+        int[] fuzzyEdits = new int[fuzzy.size()];
+        for (int i = 0; i < fuzzyEdits.length; i++) {
+            fuzzyEdits[i] = Math.max(1, Math.min(MAX_EDITS, fuzzy.get(i).length() / 5));
+        }
+        return new ShortAnswerMatcher(
+                Set.copyOf(exact),
+                fuzzy.toArray(String[]::new),
+                fuzzyEdits,
+                keywordList.isEmpty() ? null : KeywordAutomaton.build(keywordList),
+                keywordSets.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    public boolean matches(String answer) {
+        if (answer == null) {
+            return false;
+        }
+        String normalized = normalize(answer);
+        if (normalized.isEmpty()) {
+            return false;
+        }
+        if (exact.contains(normalized)) {
+            return true;
+        }
+        for (int i = 0; i < fuzzy.length; i++) {
+            if (withinEdits(normalized, fuzzy[i], fuzzyEdits[i])) {
+                return true;
+            }
+        }
+        if (keywords != null) {
+            long found = keywords.scan(" " + normalized + " ");
+            for (long required : keywordSets) {
+                if ((found & required) == required) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lower-case letters and digits separated by single spaces, accents removed.
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); ) {
+            int cp = decomposed.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.getType(cp) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(cp)) {
+                if (pendingSpace && !out.isEmpty()) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                out.appendCodePoint(Character.toLowerCase(cp));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Levenshtein distance of at most maxEdits, computed on the diagonal band only
+     * and abandoned as soon as a whole row exceeds the bound: O(maxEdits * length).
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int n = b.length();
+        int big = maxEdits + 1;
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j <= maxEdits ? j : big;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(n, i + maxEdits);
+            current[0] = i <= maxEdits ? i : big;
+            if (from > 1) {
+                current[from - 1] = big;
+            }
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, big);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < n) {
+                current[to + 1] = big;
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[n] <= maxEdits;
+    }
+
+    private static void requireNonEmpty(boolean condition, String rule) {
+        if (!condition) {
+            throw new IllegalArgumentException("Accepted answer '" + rule + "' has no words to match");
+        }
+    }
+}
@@ -12,7 +12,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Answer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answers_seq")
+    @SequenceGenerator(name = "answers_seq", sequenceName = "answers_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,8 +31,8 @@ public class Answer {
     @Column(columnDefinition = "TEXT")
     private String textAnswer; // For short answer questions
 
-    @Column(nullable = false)
-    private Boolean isCorrect = false;
+    @Column
+    private Boolean isCorrect = false; // null while ungraded
 
     @Column
     private Integer pointsEarned = 0;
@@ -4,19 +4,26 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "quiz_attempts")
+// Id second in every index so filtered keyset pages (id desc) are read straight off the index
+@Table(name = "quiz_attempts", indexes = {
+        @Index(name = "idx_quiz_attempts_quiz_id", columnList = "quiz_id, id"),
+        @Index(name = "idx_quiz_attempts_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_quiz_attempts_status", columnList = "status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class QuizAttempt {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_attempts_seq")
+    @SequenceGenerator(name = "quiz_attempts_seq", sequenceName = "quiz_attempts_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -49,6 +56,14 @@ public class QuizAttempt {
     @Column(nullable = false)
     private AttemptStatus status = AttemptStatus.IN_PROGRESS;
 
+    // Optimistic lock of the attempt row itself; adding or changing its answers does not bump it
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    // Excluded from the version: autosave flushes add answers while a finalizer holds the attempt,
+    // and that must not make the submission fail as a conflicting update
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "attempt", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Answer> answers = new ArrayList<>();
 
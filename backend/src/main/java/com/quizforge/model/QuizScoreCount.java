@@ -0,0 +1,40 @@
+package com.quizforge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Number of evaluated attempts of one quiz with one score.
+ * Flushes add their deltas to the row in place, so instances never overwrite each other's counts.
+ * Maintained by QuizStatsService, never edited directly.
+ */
+@Entity
+@Table(name = "quiz_score_counts")
+@IdClass(QuizScoreCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizScoreCount {
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Id
+    @Column(name = "score")
+    private Integer score;
+
+    @Column(nullable = false)
+    private Long attempts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long quizId;
+        private Integer score;
+    }
+}
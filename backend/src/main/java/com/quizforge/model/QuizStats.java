@@ -0,0 +1,47 @@
+package com.quizforge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running score statistics of one quiz over its evaluated attempts; the counts per score are {@link QuizScoreCount} rows.
+ * Maintained by QuizStatsService, never edited directly.
+ */
+@Entity
+@Table(name = "quiz_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizStats {
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Column(nullable = false)
+    private Long attemptCount = 0L;
+
+    @Column(nullable = false)
+    private Long scoreSum = 0L;
+
+    @Column(nullable = false)
+    private Long scoreSquareSum = 0L;
+
+    @Column
+    private Integer minScore;
+
+    @Column
+    private Integer maxScore;
+
+    @Column(nullable = false)
+    private Long exceededCount = 0L;
+
+    @Column(nullable = false)
+    private Long passedCount = 0L;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
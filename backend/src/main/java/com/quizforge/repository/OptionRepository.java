@@ -0,0 +1,9 @@
+package com.quizforge.repository;
+
+import com.quizforge.model.Option;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OptionRepository extends JpaRepository<Option, Long> {
+}
@@ -1,13 +1,128 @@
 package com.quizforge.repository;
 
 import com.quizforge.model.QuizAttempt;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>, QuizAttemptRepositoryCustom {
+    /**
+     * Deadline inputs of an open attempt.
+     */
+    interface OpenAttempt {
+        Long getId();
+        LocalDateTime getStartedAt();
+        Integer getDuration();
+    }
+
+    /**
+     * Additive score totals of one quiz over its evaluated attempts, the source QuizStats are rebuilt from.
+     */
+    interface ScoreTotals {
+        Long getQuizId();
+        Long getAttemptCount();
+        Long getScoreSum();
+        Long getScoreSquareSum();
+        Integer getMinScore();
+        Integer getMaxScore();
+        Long getExceededCount();
+        Long getPassedCount();
+    }
+
+    String SCORE_TOTALS = """
+            select a.quiz_id as quizId, count(*) as attemptCount,
+                   sum(cast(a.score as bigint)) as scoreSum,
+                   sum(cast(a.score as bigint) * a.score) as scoreSquareSum,
+                   min(a.score) as minScore, max(a.score) as maxScore,
+                   sum(case when a.exceeded_time_limit then 1 else 0 end) as exceededCount,
+                   sum(case when a.score * 100 >= :passPercentage * a.total_points then 1 else 0 end) as passedCount
+            from quiz_attempts a
+            where a.status = 'EVALUATED'
+            """;
+
+    @Query(value = SCORE_TOTALS + "and a.quiz_id = :quizId group by a.quiz_id", nativeQuery = true)
+    Optional<ScoreTotals> findScoreTotals(@Param("quizId") Long quizId,
+                                          @Param("passPercentage") int passPercentage);
+
+    @Query(value = SCORE_TOTALS + "group by a.quiz_id", nativeQuery = true)
+    List<ScoreTotals> findAllScoreTotals(@Param("passPercentage") int passPercentage);
+
+    interface ScoreCount {
+        Long getQuizId();
+        Integer getScore();
+        Long getAttempts();
+    }
+
+    @Query(value = "select a.quiz_id as quizId, a.score as score, count(*) as attempts from quiz_attempts a " +
+            "where a.status = 'EVALUATED' and a.quiz_id = :quizId group by a.quiz_id, a.score", nativeQuery = true)
+    List<ScoreCount> findScoreCounts(@Param("quizId") Long quizId);
+
+    @Query(value = "select a.quiz_id as quizId, a.score as score, count(*) as attempts from quiz_attempts a " +
+            "where a.status = 'EVALUATED' group by a.quiz_id, a.score", nativeQuery = true)
+    List<ScoreCount> findAllScoreCounts();
+
+    /**
+     * An evaluated attempt as ranked on a quiz leaderboard.
+     */
+    interface RankedAttempt {
+        Long getId();
+        Long getQuizId();
+        Long getUserId();
+        Integer getScore();
+        Integer getTotalPoints();
+        Long getTimeTakenMinutes();
+        LocalDateTime getSubmittedAt();
+    }
+
+    // Best attempts per quiz in leaderboard order: score, then time taken, then id
+    String TOP_ATTEMPTS = """
+            select r.id, r.quizId, r.userId, r.score, r.totalPoints, r.timeTakenMinutes, r.submittedAt
+            from (select a.id as id, a.quiz_id as quizId, a.user_id as userId, a.score as score,
+                         a.total_points as totalPoints, a.time_taken_minutes as timeTakenMinutes,
+                         a.submitted_at as submittedAt,
+                         row_number() over (partition by a.quiz_id
+                                            order by a.score desc, a.time_taken_minutes asc nulls last, a.id) as position
+                  from quiz_attempts a
+                  where a.status = 'EVALUATED'
+            """;
+
+    @Query(value = TOP_ATTEMPTS + "and a.quiz_id = :quizId) r where r.position <= :limit", nativeQuery = true)
+    List<RankedAttempt> findTopAttempts(@Param("quizId") Long quizId, @Param("limit") int limit);
+
+    @Query(value = TOP_ATTEMPTS + ") r where r.position <= :limit", nativeQuery = true)
+    List<RankedAttempt> findAllTopAttempts(@Param("limit") int limit);
+
+    @EntityGraph(attributePaths = "quiz")
     List<QuizAttempt> findByUserId(Long userId);
+
     List<QuizAttempt> findByQuizId(Long quizId);
+
+    // Ownership is part of the lookup, the user row is never loaded
+    Optional<QuizAttempt> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select a.id from QuizAttempt a where a.status = :status")
+    List<Long> findIdsByStatus(@Param("status") QuizAttempt.AttemptStatus status);
+
+    @Query("select a.id from QuizAttempt a where a.id in :ids and a.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                      @Param("status") QuizAttempt.AttemptStatus status);
+
+    @EntityGraph(attributePaths = "answers")
+    List<QuizAttempt> findWithAnswersByIdInAndStatus(Collection<Long> ids, QuizAttempt.AttemptStatus status);
+
+    @EntityGraph(attributePaths = {"quiz", "answers", "answers.question", "answers.selectedOption"})
+    @Query("select a from QuizAttempt a where a.id = :id and a.user.id = :userId")
+    Optional<QuizAttempt> findWithAnswersByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("select a.id as id, a.startedAt as startedAt, q.duration as duration from QuizAttempt a join a.quiz q " +
+            "where a.status = :status")
+    List<OpenAttempt> findOpenAttempts(@Param("status") QuizAttempt.AttemptStatus status);
 }
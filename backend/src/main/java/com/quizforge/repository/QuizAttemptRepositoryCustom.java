@@ -0,0 +1,24 @@
+package com.quizforge.repository;
+
+import com.quizforge.dto.AdminAttemptResponse;
+import com.quizforge.model.QuizAttempt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queries of {@link QuizAttemptRepository} whose where clause depends on the arguments.
+ */
+public interface QuizAttemptRepositoryCustom {
+
+    /**
+     * Admin attempt listing projected straight into responses, newest first.
+     * Quiz title and candidate come from joins in the same statement, no entity is loaded.
+     * Null filters are left out of the statement, so each combination gets a plan for the
+     * predicates it actually has. afterId is the keyset cursor: only attempts with a smaller
+     * id are returned. limit caps the rows.
+     */
+    List<AdminAttemptResponse> findAdminAttempts(Long quizId, Long userId, QuizAttempt.AttemptStatus status,
+                                                 LocalDateTime from, LocalDateTime to,
+                                                 Long afterId, int limit);
+}
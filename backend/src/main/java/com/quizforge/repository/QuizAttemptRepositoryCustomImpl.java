@@ -0,0 +1,51 @@
+package com.quizforge.repository;
+
+import com.quizforge.dto.AdminAttemptResponse;
+import com.quizforge.model.QuizAttempt;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class QuizAttemptRepositoryCustomImpl implements QuizAttemptRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AdminAttemptResponse> findAdminAttempts(Long quizId, Long userId, QuizAttempt.AttemptStatus status,
+                                                        LocalDateTime from, LocalDateTime to,
+                                                        Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+                select new com.quizforge.dto.AdminAttemptResponse(
+                    a.id, q.id, q.title, u.name, u.email, a.startedAt, a.submittedAt, a.score, a.totalPoints,
+                    cast(a.status as String), a.timeTakenMinutes, a.exceededTimeLimit)
+                from QuizAttempt a join a.quiz q join a.user u
+                where 1 = 1
+                """);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        where(jpql, parameters, "q.id = :quizId", "quizId", quizId);
+        where(jpql, parameters, "u.id = :userId", "userId", userId);
+        where(jpql, parameters, "a.status = :status", "status", status);
+        where(jpql, parameters, "a.submittedAt >= :from", "from", from);
+        where(jpql, parameters, "a.submittedAt <= :to", "to", to);
+        where(jpql, parameters, "a.id < :afterId", "afterId", afterId);
+        jpql.append("order by a.id desc");
+
+        TypedQuery<AdminAttemptResponse> query = entityManager.createQuery(jpql.toString(), AdminAttemptResponse.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static void where(StringBuilder jpql, Map<String, Object> parameters,
+                              String predicate, String name, Object value) {
+        if (value != null) {
+            jpql.append("and ").append(predicate).append('\n');
+            parameters.put(name, value);
+        }
+    }
+}
@@ -1,13 +1,66 @@
 package com.quizforge.repository;
 
+import com.quizforge.dto.QuizSummaryResponse;
+import com.quizforge.model.Question;
 import com.quizforge.model.Quiz;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
-    List<Quiz> findByIsActiveTrue();
     List<Quiz> findByCreatedById(Long userId);
+
+    /**
+     * Quiz listing projected straight into summaries, newest first.
+     * The question count and creator name are computed in SQL, no entity is loaded.
+     * afterId is the keyset cursor: only quizzes with a smaller id are returned.
+     */
+    @Query("""
+            select new com.quizforge.dto.QuizSummaryResponse(
+                q.id, q.title, q.description, q.duration, q.isActive, u.name, q.createdAt, size(q.questions))
+            from Quiz q join q.createdBy u
+            where (:active is null or q.isActive = :active)
+              and (:titlePattern is null or lower(q.title) like :titlePattern escape '\\')
+              and (:afterId is null or q.id < :afterId)
+            order by q.id desc
+            """)
+    List<QuizSummaryResponse> findSummaries(@Param("active") Boolean active,
+                                            @Param("titlePattern") String titlePattern,
+                                            @Param("afterId") Long afterId,
+                                            Limit limit);
+
+    interface QuizTitle {
+        Long getId();
+        String getTitle();
+    }
+
+    @Query("select q.id as id, q.title as title from Quiz q order by q.id")
+    List<QuizTitle> findAllTitles();
+
+    @EntityGraph(attributePaths = {"createdBy", "questions"})
+    @Query("select q from Quiz q where q.id = :id")
+    Optional<Quiz> findWithQuestionsById(@Param("id") Long id);
+
+    // Initializes the options of every question of the quiz already in the persistence context
+    @Query("select distinct qn from Question qn left join fetch qn.options where qn.quiz.id = :quizId")
+    List<Question> fetchQuestionOptions(@Param("quizId") Long quizId);
+
+    /**
+     * Loads a quiz with its creator, questions and options in two statements.
+     * Questions and options are both bags, so they cannot share one fetch join.
+     * Must run inside a transaction for the second query to reach the same session.
+     */
+    default Optional<Quiz> findFullById(Long id) {
+        Optional<Quiz> quiz = findWithQuestionsById(id);
+        quiz.filter(q -> !q.getQuestions().isEmpty())
+                .ifPresent(q -> fetchQuestionOptions(id));
+        return quiz;
+    }
 }
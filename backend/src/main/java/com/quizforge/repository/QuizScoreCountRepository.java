@@ -0,0 +1,36 @@
+package com.quizforge.repository;
+
+import com.quizforge.model.QuizScoreCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuizScoreCountRepository extends JpaRepository<QuizScoreCount, QuizScoreCount.Key> {
+
+    List<QuizScoreCount> findByQuizId(Long quizId);
+
+    /**
+     * Adds to the count of one score in place, so concurrent writers never lose an update.
+     *
+     * @return 0 if the score has no row yet
+     */
+    @Modifying
+    @Query("update QuizScoreCount c set c.attempts = c.attempts + :delta where c.quizId = :quizId and c.score = :score")
+    int addAttempts(@Param("quizId") Long quizId, @Param("score") int score, @Param("delta") long delta);
+
+    // Plain insert, save() would select the row by its assigned id first
+    @Modifying
+    @Query(value = "insert into quiz_score_counts (quiz_id, score, attempts) values (:quizId, :score, :attempts)",
+            nativeQuery = true)
+    void insert(@Param("quizId") Long quizId, @Param("score") int score, @Param("attempts") long attempts);
+
+    @Modifying
+    @Query("delete from QuizScoreCount c where c.quizId in :quizIds")
+    void deleteByQuizIdIn(@Param("quizIds") Collection<Long> quizIds);
+}
@@ -0,0 +1,46 @@
+package com.quizforge.repository;
+
+import com.quizforge.model.QuizStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuizStatsRepository extends JpaRepository<QuizStats, Long> {
+
+    @Query("select q.id from Quiz q where not exists (select 1 from QuizStats s where s.quizId = q.id)")
+    List<Long> findQuizIdsWithoutStats();
+
+    /**
+     * Adds counter deltas to the stored row in place, so concurrent writers never lose an update.
+     *
+     * @return 0 if the quiz has no stats row yet
+     */
+    @Modifying
+    @Query("""
+            update QuizStats s set
+                s.attemptCount = s.attemptCount + :attempts,
+                s.scoreSum = s.scoreSum + :scoreSum,
+                s.scoreSquareSum = s.scoreSquareSum + :scoreSquareSum,
+                s.exceededCount = s.exceededCount + :exceeded,
+                s.passedCount = s.passedCount + :passed,
+                s.minScore = case when s.minScore is null or s.minScore > :minScore then :minScore else s.minScore end,
+                s.maxScore = case when s.maxScore is null or s.maxScore < :maxScore then :maxScore else s.maxScore end,
+                s.updatedAt = :updatedAt
+            where s.quizId = :quizId
+            """)
+    int addDeltas(@Param("quizId") Long quizId,
+                  @Param("attempts") long attempts,
+                  @Param("scoreSum") long scoreSum,
+                  @Param("scoreSquareSum") long scoreSquareSum,
+                  @Param("exceeded") long exceeded,
+                  @Param("passed") long passed,
+                  @Param("minScore") int minScore,
+                  @Param("maxScore") int maxScore,
+                  @Param("updatedAt") LocalDateTime updatedAt);
+}
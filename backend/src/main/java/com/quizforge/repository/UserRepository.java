@@ -2,12 +2,29 @@ package com.quizforge.repository;
 
 import com.quizforge.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    interface UserName {
+        Long getId();
+        String getName();
+    }
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    List<UserName> findNamesByIdIn(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
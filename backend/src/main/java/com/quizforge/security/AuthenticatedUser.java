@@ -0,0 +1,22 @@
+package com.quizforge.security;
+
+import java.security.Principal;
+
+/**
+ * Principal of a request authenticated by JWT. Controllers take the user id from here,
+ * so services never have to resolve the caller by email. tokenId is the jti of the access
+ * token, null for tokens issued before it existed.
+ */
+public record AuthenticatedUser(Long id, String email, String role,
+                                String tokenId, long tokenExpiresAtMillis) implements Principal {
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    // Authentication.getName() keeps returning the email
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,5 +1,8 @@
 package com.quizforge.security;
 
+import com.quizforge.model.User;
+import com.quizforge.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,46 +24,69 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    /**
+     * Refreshing is authenticated by the refresh token alone, an expired access token
+     * sent along must not turn it away.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "/api/auth/refresh".equals(request.getServletPath());
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String email = null;
-        String jwt = null;
-
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            
-            try {
-                // First validate token format and signature
-                if (!jwtUtil.isTokenValid(jwt)) {
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                    response.setContentType("application/json");
-                    response.getWriter().write("{\"error\": \"Invalid or expired token\"}");
-                    return; // Stop processing
-                }
-                
-                // Extract email and role from valid token
-                email = jwtUtil.extractEmail(jwt);
-                String role = jwtUtil.extractRole(jwt);
+            String jwt = authorizationHeader.substring(7);
 
-                // Set authentication context
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            email, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (Exception e) {
-                // Log and reject invalid tokens
-                logger.error("JWT validation failed: " + e.getMessage());
+            JwtUtil.TokenClaims claims;
+            try {
+                // One parse checks signature and expiry; a token seen before comes from the cache
+                claims = jwtUtil.verify(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("JWT validation failed: " + e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
-                response.getWriter().write("{\"error\": \"Invalid token: " + e.getMessage() + "\"}");
+                response.getWriter().write("{\"error\": \"Invalid or expired token\"}");
                 return; // Stop processing
             }
+            // Checked on every request, a revoked token may still sit in the verified claims cache
+            if (claims.jti() != null && tokenRevocationList.isRevoked(claims.jti())) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\": \"Invalid or expired token\"}");
+                return;
+            }
+
+            // Set authentication context
+            if (claims.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Long userId = claims.userId();
+                if (userId == null) {
+                    // Token issued before the uid claim, resolved by email until it expires
+                    userId = userRepository.findByEmail(claims.email()).map(User::getId).orElse(null);
+                    if (userId == null) {
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.setContentType("application/json");
+                        response.getWriter().write("{\"error\": \"Invalid or expired token\"}");
+                        return;
+                    }
+                }
+                AuthenticatedUser principal = new AuthenticatedUser(userId, claims.email(), claims.role(),
+                        claims.jti(), claims.expiresAtMillis());
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + claims.role())));
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
         }
 
         chain.doFilter(request, response);
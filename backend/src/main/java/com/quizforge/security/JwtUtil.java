@@ -1,84 +1,108 @@
 package com.quizforge.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies HS512 tokens. The signing key and parser are built once,
+ * and verified claims are cached per token so a repeated token skips the HMAC.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    /**
+     * Claims of a token whose signature has been checked.
+     * userId and jti are null for tokens issued before those claims existed.
+     */
+    public record TokenClaims(String jti, Long userId, String email, String role, long expiresAtMillis) {
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+        public boolean isExpired(long nowMillis) {
+            return expiresAtMillis <= nowMillis;
+        }
+    }
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private final Long expiration;
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
-    public String generateToken(String email, String role) {
+    /**
+     * A signed access token with the id and expiry it was issued with.
+     */
+    public record AccessToken(String token, String jti, Date expiresAt) {}
+
+    public AccessToken generateToken(Long userId, String email, String role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("uid", userId);
         claims.put("role", role);
         return createToken(claims, email);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+    private AccessToken createToken(Map<String, Object> claims, String subject) {
+        String jti = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        Date expiresAt = new Date(now + expiration);
+        String token = Jwts.builder()
                 .setClaims(claims)
+                .setId(jti)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .setIssuedAt(new Date(now))
+                .setExpiration(expiresAt)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
+        return new AccessToken(token, jti, expiresAt);
     }
 
-    public String extractEmail(String token) {
-        return extractClaims(token).getSubject();
-    }
-
-    public String extractRole(String token) {
-        return extractClaims(token).get("role", String.class);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaims(token).getExpiration();
-    }
-
-    private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public Boolean validateToken(String token, String email) {
-        final String extractedEmail = extractEmail(token);
-        return (extractedEmail.equals(email) && !isTokenExpired(token));
+    public long getExpirationMillis() {
+        return expiration;
     }
 
-    public Boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+    /**
+     * Verifies signature and expiry with a single parse, or answers from the cache for a token seen before.
+     *
+     * @throws JwtException when the token is malformed, forged or expired
+     */
+    public TokenClaims verify(String token) {
+        long now = System.currentTimeMillis();
+        String key = VerifiedTokenCache.key(token);
+        TokenClaims cached = verifiedTokenCache.get(key);
+        if (cached != null) {
+            if (cached.isExpired(now)) {
+                throw new ExpiredJwtException(null, null, "JWT expired");
+            }
+            return cached;
         }
+        // Parsing rejects expired tokens too
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiresAt = claims.getExpiration();
+        TokenClaims verified = new TokenClaims(claims.getId(), claims.get("uid", Long.class), claims.getSubject(),
+                claims.get("role", String.class),
+                expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE);
+        verifiedTokenCache.put(key, verified);
+        return verified;
     }
 }
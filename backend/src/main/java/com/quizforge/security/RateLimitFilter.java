@@ -0,0 +1,251 @@
+package com.quizforge.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizforge.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Applies {@link RateLimiter} buckets per caller and endpoint class. Runs after
+ * {@link JwtRequestFilter} so authenticated callers are limited by user id wherever they
+ * connect from; anonymous requests are limited by client address, which is the forwarded
+ * address when the request came through a trusted proxy (server.forward-headers-strategy).
+ * Logins are also limited per account and refreshes per refresh token, so candidates
+ * behind one address do not use up each other's attempts. The address is checked before the
+ * body is read, and at most the first few KB of it are buffered.
+ * Throttled requests get 429 with Retry-After, every limited response carries X-RateLimit-* headers.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Login and refresh bodies are far smaller; a larger one is not parsed for its credential
+    private static final int MAX_CREDENTIAL_BODY = 4096;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !enabled
+                || "OPTIONS".equals(request.getMethod()) // CORS preflight
+                || !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.EndpointClass endpoint = classify(request);
+        RateLimiter.Decision decision;
+        if (endpoint == RateLimiter.EndpointClass.LOGIN || endpoint == RateLimiter.EndpointClass.REFRESH) {
+            // A throttled address is turned away before its body is read
+            decision = rateLimiter.tryAcquire("ip:" + request.getRemoteAddr(), RateLimiter.EndpointClass.AUTH);
+            if (decision.allowed()) {
+                byte[] body = null;
+                if (request.getContentLengthLong() <= MAX_CREDENTIAL_BODY) {
+                    CachedBodyRequest cached = new CachedBodyRequest(request, MAX_CREDENTIAL_BODY);
+                    request = cached;
+                    body = cached.body();
+                }
+                String credential = credential(body, endpoint);
+                if (credential != null) {
+                    decision = rateLimiter.tryAcquire(credential, endpoint);
+                }
+            }
+        } else {
+            decision = rateLimiter.tryAcquire(caller(request), endpoint);
+        }
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+        if (decision.allowed()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests, retry in " + decision.retryAfterSeconds() + " seconds"));
+    }
+
+    private static RateLimiter.EndpointClass classify(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        if (path.startsWith("/api/auth/")) {
+            if ("POST".equals(method) && path.equals("/api/auth/login")) {
+                return RateLimiter.EndpointClass.LOGIN;
+            }
+            if ("POST".equals(method) && path.equals("/api/auth/refresh")) {
+                return RateLimiter.EndpointClass.REFRESH;
+            }
+            return RateLimiter.EndpointClass.AUTH;
+        }
+        if (path.startsWith("/api/quizzes/")
+                && (("POST".equals(method) && (path.equals("/api/quizzes/submit") || path.endsWith("/start")))
+                    || ("PUT".equals(method) && path.endsWith("/answers")))) {
+            return RateLimiter.EndpointClass.SUBMIT;
+        }
+        return "GET".equals(method) ? RateLimiter.EndpointClass.READ : RateLimiter.EndpointClass.WRITE;
+    }
+
+    private static String caller(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.id();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * The account a login is for or the hash of the refresh token presented, null for a body that
+     * is not valid JSON; the controller rejects those anyway.
+     * An oversized body (null) carries no credential; all of them share one bucket per endpoint,
+     * so padding a body cannot skip the per-account limit.
+     */
+    private String credential(byte[] bytes, RateLimiter.EndpointClass endpoint) {
+        if (bytes == null) {
+            return endpoint == RateLimiter.EndpointClass.LOGIN ? "login:oversized" : "refresh:oversized";
+        }
+        JsonNode body;
+        try {
+            body = objectMapper.readTree(bytes);
+        } catch (IOException e) {
+            return null;
+        }
+        if (body == null) {
+            return null;
+        }
+        if (endpoint == RateLimiter.EndpointClass.LOGIN) {
+            String email = body.path("email").asText("");
+            return email.isBlank() ? null : "login:" + email.trim().toLowerCase(Locale.ROOT);
+        }
+        String refreshToken = body.path("refreshToken").asText("");
+        return refreshToken.isBlank() ? null : "refresh:" + VerifiedTokenCache.key(refreshToken);
+    }
+
+    /**
+     * Reads up to a limit of the body up front so the limiter can look at it; the controller
+     * still reads the whole body, the buffered head followed by the rest of the original stream.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] head;
+        private final boolean complete; // head is the whole body
+        private ServletInputStream in;
+
+        CachedBodyRequest(HttpServletRequest request, int limit) throws IOException {
+            super(request);
+            this.head = request.getInputStream().readNBytes(limit + 1);
+            this.complete = head.length <= limit;
+        }
+
+        /**
+         * The whole body, or null when it is longer than the limit.
+         */
+        byte[] body() {
+            return complete ? head : null;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (in == null) {
+                in = new HeadThenRest(super.getInputStream());
+            }
+            return in;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        private final class HeadThenRest extends ServletInputStream {
+            private final ServletInputStream rest;
+            private int position;
+
+            HeadThenRest(ServletInputStream rest) {
+                this.rest = rest;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return position == head.length && (complete || rest.isFinished());
+            }
+
+            @Override
+            public boolean isReady() {
+                return position < head.length || complete || rest.isReady();
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                if (!complete) {
+                    // The container calls back as the rest arrives; reads drain the head first
+                    rest.setReadListener(listener);
+                    return;
+                }
+                // Everything is buffered already, so it is available right away
+                try {
+                    if (position < head.length) {
+                        listener.onDataAvailable();
+                    }
+                    listener.onAllDataRead();
+                } catch (IOException | RuntimeException e) {
+                    listener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() throws IOException {
+                if (position < head.length) {
+                    return head[position++] & 0xff;
+                }
+                return complete ? -1 : rest.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                if (position < head.length) {
+                    int n = Math.min(len, head.length - position);
+                    System.arraycopy(head, position, b, off, n);
+                    position += n;
+                    return n;
+                }
+                return complete ? -1 : rest.read(b, off, len);
+            }
+        }
+    }
+}
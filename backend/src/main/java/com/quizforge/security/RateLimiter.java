@@ -0,0 +1,151 @@
+package com.quizforge.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per caller and endpoint class. Each bucket is a single AtomicLong updated
+ * by compare-and-set, so concurrent requests of one caller never block each other.
+ * A bucket that has refilled completely holds no state worth keeping and is swept;
+ * when the map is full, callers without a bucket share one overflow bucket per class.
+ */
+@Component
+public class RateLimiter {
+
+    /**
+     * Endpoints limited together; limits are read from rate-limit.&lt;name&gt;.capacity and
+     * rate-limit.&lt;name&gt;.refill-per-minute.
+     */
+    public enum EndpointClass {
+        LOGIN(10, 20),      // per account, against password guessing
+        REFRESH(5, 10),     // per refresh token, each is valid once
+        AUTH(1000, 1000),   // every auth request of one client address, an exam room may share one
+        SUBMIT(30, 120),    // start, submit and answer autosave
+        READ(120, 600),
+        WRITE(30, 120);
+
+        private final long defaultCapacity;
+        private final long defaultRefillPerMinute;
+
+        EndpointClass(long defaultCapacity, long defaultRefillPerMinute) {
+            this.defaultCapacity = defaultCapacity;
+            this.defaultRefillPerMinute = defaultRefillPerMinute;
+        }
+    }
+
+    /**
+     * @param remaining         tokens left after this request
+     * @param resetSeconds      until the bucket is full again
+     * @param retryAfterSeconds until the next request is allowed, 0 when this one was
+     */
+    public record Decision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {}
+
+    private record Key(String caller, EndpointClass endpoint) {}
+
+    /**
+     * Token bucket stored as the time at which it will be full again (the generic cell rate
+     * algorithm): a request takes one token by pushing that time one refill interval further,
+     * and is refused when that would put it more than capacity intervals ahead of now.
+     */
+    private static final class Bucket {
+        final AtomicLong fullAt;
+
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        boolean idle(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+
+    private record Limit(long capacity, long intervalNanos) {
+        long toleranceNanos() {
+            return capacity * intervalNanos;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<EndpointClass, Bucket> overflow = new EnumMap<>(EndpointClass.class);
+    // Inline sweeps when full are spaced out so a flood of new callers cannot make every request scan the map
+    private final AtomicLong lastFullSweep = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(Environment environment,
+                       @Value("${rate-limit.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        long now = System.nanoTime();
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            String prefix = "rate-limit." + endpoint.name().toLowerCase(Locale.ROOT);
+            long capacity = environment.getProperty(prefix + ".capacity", Long.class, endpoint.defaultCapacity);
+            long perMinute = environment.getProperty(prefix + ".refill-per-minute", Long.class, endpoint.defaultRefillPerMinute);
+            if (capacity < 1 || perMinute < 1) {
+                throw new IllegalStateException(prefix + ".capacity and .refill-per-minute must be positive");
+            }
+            limits.put(endpoint, new Limit(capacity, TimeUnit.MINUTES.toNanos(1) / perMinute));
+            overflow.put(endpoint, new Bucket(now));
+        }
+    }
+
+    public Decision tryAcquire(String caller, EndpointClass endpoint) {
+        Limit limit = limits.get(endpoint);
+        long now = System.nanoTime();
+        Bucket bucket = bucket(new Key(caller, endpoint), now);
+        while (true) {
+            long fullAt = bucket.fullAt.get();
+            long next = Math.max(fullAt, now) + limit.intervalNanos();
+            long ahead = next - now;
+            if (ahead > limit.toleranceNanos()) {
+                long wait = ahead - limit.toleranceNanos();
+                return new Decision(false, limit.capacity(), 0, seconds(fullAt - now), Math.max(1, seconds(wait)));
+            }
+            if (bucket.fullAt.compareAndSet(fullAt, next)) {
+                long remaining = (limit.toleranceNanos() - ahead) / limit.intervalNanos();
+                return new Decision(true, limit.capacity(), remaining, seconds(ahead), 0);
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.idle(now));
+    }
+
+    private Bucket bucket(Key key, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxEntries) {
+            long last = lastFullSweep.get();
+            if (now - last > TimeUnit.SECONDS.toNanos(1) && lastFullSweep.compareAndSet(last, now)) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxEntries) {
+                return overflow.get(key.endpoint());
+            }
+        }
+        Bucket created = new Bucket(now);
+        Bucket raced = buckets.putIfAbsent(key, created);
+        return raced != null ? raced : created;
+    }
+
+    private static long seconds(long nanos) {
+        return nanos <= 0 ? 0 : (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+}
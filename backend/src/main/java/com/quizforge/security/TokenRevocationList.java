@@ -0,0 +1,116 @@
+package com.quizforge.security;
+
+import com.quizforge.model.RevokedToken;
+import com.quizforge.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked access token ids, stored in revoked_tokens and mirrored into a Bloom filter.
+ * Almost every request carries a token that was never revoked, and the filter rules that out
+ * without touching the database; only a filter hit is confirmed by primary key.
+ * The filter is rebuilt on a schedule, which drops expired ids and picks up revocations
+ * made by other instances.
+ */
+@Component
+public class TokenRevocationList {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final TransactionTemplate tx;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    // Null until the first load, requests before that are checked against the database
+    private volatile BloomFilter filter;
+    // Filter being rebuilt, also receives revocations made while it loads
+    private volatile BloomFilter next;
+
+    public TokenRevocationList(PlatformTransactionManager transactionManager,
+                               @Value("${jwt.revocation.expected-entries:100000}") long expectedEntries,
+                               @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean isRevoked(String jti) {
+        BloomFilter current = filter;
+        return (current == null || current.mightContain(jti)) && revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Stores the revocation in the current transaction and adds it to the filter once committed.
+     */
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        if (expiresAt.isBefore(LocalDateTime.now())) {
+            return; // rejected as expired anyway
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(jti);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(jti);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.reload-interval-ms:60000}",
+            initialDelayString = "${jwt.revocation.reload-interval-ms:60000}")
+    public void reload() {
+        // Not synchronized: the load blocks on JDBC, which would pin a virtual scheduler thread
+        reloadLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BloomFilter fresh = new BloomFilter(expectedEntries, falsePositiveRate);
+            // Published before the read, so a revocation committed after the read still reaches it
+            next = fresh;
+            List<String> active = tx.execute(status -> {
+                revokedTokenRepository.deleteExpired(now);
+                return revokedTokenRepository.findActiveJtis(now);
+            });
+            for (String jti : active) {
+                fresh.add(jti);
+            }
+            filter = fresh;
+            next = null;
+            if (active.size() > expectedEntries) {
+                System.err.println("Revoked tokens (" + active.size() + ") exceed jwt.revocation.expected-entries, "
+                        + "more requests will reach the database");
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void add(String jti) {
+        // next before filter: once next is cleared, filter is already the rebuilt one
+        BloomFilter loading = next;
+        if (loading != null) {
+            loading.add(jti);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(jti);
+        }
+    }
+}
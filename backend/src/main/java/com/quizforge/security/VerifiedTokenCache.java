@@ -0,0 +1,72 @@
+package com.quizforge.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded cache of verified token claims, keyed by the SHA-256 of the token so the
+ * tokens themselves are never held in memory. Entries live until the token expires.
+ * When full, the oldest entry makes room for the new one: access tokens share one lifetime,
+ * so insertion order is expiry order and the oldest entry is the one that expires first.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+
+    private final Map<String, JwtUtil.TokenClaims> entries = new ConcurrentHashMap<>();
+    // Keys in insertion order; may still hold keys the sweep removed from entries
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public VerifiedTokenCache(@Value("${jwt.claims-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    JwtUtil.TokenClaims get(String key) {
+        return entries.get(key);
+    }
+
+    void put(String key, JwtUtil.TokenClaims claims) {
+        if (entries.putIfAbsent(key, claims) != null) {
+            return;
+        }
+        insertionOrder.add(key);
+        while (entries.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.claims-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(claims -> claims.isExpired(now));
+        insertionOrder.removeIf(key -> !entries.containsKey(key));
+    }
+}
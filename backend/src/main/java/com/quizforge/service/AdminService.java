@@ -2,13 +2,18 @@ package com.quizforge.service;
 
 import com.quizforge.dto.*;
 import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.grading.AnswerKey;
+import com.quizforge.grading.AnswerKeyCache;
 import com.quizforge.model.*;
 import com.quizforge.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,22 +28,42 @@ public class AdminService {
     @Autowired
     private QuizAttemptRepository attemptRepository;
 
-    public List<QuizSummaryResponse> getAllQuizzes() {
-        return quizRepository.findAll().stream()
-                .map(this::toSummaryResponse)
-                .collect(Collectors.toList());
+    @Autowired
+    private QuizSnapshotCache quizSnapshotCache;
+
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+
+    @Autowired
+    private QuizStatsService quizStatsService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ItemAnalysisService itemAnalysisService;
+
+    /**
+     * Quizzes newest first, {@link Paging#DEFAULT_PAGE_SIZE} per page unless size says otherwise.
+     */
+    public CursorPage<QuizSummaryResponse> getAllQuizzes(Boolean active, String search, Long cursor, Integer size) {
+        int pageSize = Paging.pageSize(size);
+        List<QuizSummaryResponse> rows = quizRepository.findSummaries(
+                active, Paging.containsPattern(search), cursor, Paging.limit(pageSize));
+        return CursorPage.of(rows, pageSize, QuizSummaryResponse::id);
     }
 
-    public QuizResponse getQuizById(Long id) {
-        Quiz quiz = quizRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Quiz", id));
-        return toDetailedResponse(quiz);
+    public QuizSnapshot getQuizById(Long id) {
+        return quizSnapshotCache.get(id, QuizSnapshotCache.View.ADMIN, () -> {
+            Quiz quiz = quizRepository.findFullById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Quiz", id));
+            return toDetailedResponse(quiz);
+        });
     }
 
     @Transactional
-    public QuizResponse createQuiz(QuizRequest request, String adminEmail) {
-        User admin = userRepository.findByEmail(adminEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", adminEmail));
+    public QuizResponse createQuiz(QuizRequest request, Long adminId) {
+        User admin = userRepository.getReferenceById(adminId);
 
         Quiz quiz = new Quiz();
         quiz.setTitle(request.title());
@@ -64,17 +89,19 @@ public class AdminService {
                         question.getOptions().add(option);
                     }
                 }
+                checkAcceptedAnswers(question);
                 quiz.getQuestions().add(question);
             }
         }
 
         quiz = quizRepository.save(quiz);
+        quizStatsService.initialize(quiz.getId());
         return toDetailedResponse(quiz);
     }
 
     @Transactional
     public QuizResponse updateQuiz(Long id, QuizRequest request) {
-        Quiz quiz = quizRepository.findById(id)
+        Quiz quiz = quizRepository.findFullById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz", id));
 
         // Check if quiz has any attempts
@@ -89,8 +116,9 @@ public class AdminService {
             quiz.setIsActive(request.isActive());
         }
 
-        // Check if questions structure is being modified
+        // Check if questions structure is being modified; points and correct answers only change the answer key
         boolean questionsModified = false;
+        boolean answerKeyModified = false;
         if (request.questions() != null) {
             // Check if number of questions changed
             if (request.questions().size() != quiz.getQuestions().size()) {
@@ -114,11 +142,15 @@ public class AdminService {
                     
                     // Check if question details changed
                     if (!existingQ.getQuestionText().equals(qReq.questionText()) ||
-                        !existingQ.getType().name().equals(qReq.type()) ||
-                        !existingQ.getPoints().equals(qReq.points())) {
+                        !existingQ.getType().name().equals(qReq.type())) {
                         questionsModified = true;
                         break;
                     }
+                    if (!existingQ.getPoints().equals(qReq.points())) {
+                        answerKeyModified = true;
+                    }
+                    // Short answer options are accepted answers, editing them corrects the key
+                    boolean acceptedAnswers = existingQ.getType() == Question.QuestionType.SHORT_ANSWER;
                     
                     // Check if options changed
                     if (qReq.options() != null) {
@@ -138,11 +170,14 @@ public class AdminService {
                                     .orElse(null);
                             
                             if (existingO == null ||
-                                !existingO.getOptionText().equals(oReq.optionText()) ||
-                                !existingO.getIsCorrect().equals(oReq.isCorrect())) {
+                                (!acceptedAnswers && !existingO.getOptionText().equals(oReq.optionText()))) {
                                 questionsModified = true;
                                 break;
                             }
+                            if (!existingO.getOptionText().equals(oReq.optionText()) ||
+                                !existingO.getIsCorrect().equals(oReq.isCorrect())) {
+                                answerKeyModified = true;
+                            }
                         }
                         if (questionsModified) break;
                     }
@@ -154,10 +189,18 @@ public class AdminService {
         if (hasAttempts && questionsModified) {
             throw new IllegalStateException(
                 "Cannot modify quiz structure - quiz has already been attempted by " + attempts.size() + 
-                " candidate(s). You can only update the title, description, duration, or active status."
+                " candidate(s). You can only update the title, description, duration, active status, points or correct answers."
             );
         }
 
+        // Answer key corrections are applied in place even after attempts, a regrade job rescores them
+        if (!questionsModified && answerKeyModified) {
+            applyAnswerKey(quiz, request.questions());
+            if (hasAttempts) {
+                System.out.println("Answer key of quiz " + id + " changed, " + attempts.size() + " attempt(s) need a regrade");
+            }
+        }
+
         // If questions were modified and no attempts, allow full update
         if (questionsModified) {
             // Clear existing questions and add new ones
@@ -180,6 +223,7 @@ public class AdminService {
                             question.getOptions().add(option);
                         }
                     }
+                    checkAcceptedAnswers(question);
                     quiz.getQuestions().add(question);
                 }
             }
@@ -187,6 +231,8 @@ public class AdminService {
         // else: questions not modified, just save metadata changes
 
         quiz = quizRepository.save(quiz);
+        quizSnapshotCache.evict(id);
+        answerKeyCache.evict(id);
         return toDetailedResponse(quiz);
     }
 
@@ -206,6 +252,11 @@ public class AdminService {
         
         // Safe to delete - no attempts exist
         quizRepository.delete(quiz);
+        quizStatsService.delete(id);
+        quizSnapshotCache.evict(id);
+        answerKeyCache.evict(id);
+        leaderboardService.evict(id);
+        itemAnalysisService.evict(id);
         
         return new DeleteResponse("Quiz with id " + id + " deleted successfully", id);
     }
@@ -213,38 +264,76 @@ public class AdminService {
     public QuizAnalyticsResponse getQuizAnalytics(Long quizId) {
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz", quizId));
+        // Served from the running counters, independent of the number of attempts
+        return toAnalyticsResponse(quizId, quiz.getTitle(), quizStatsService.get(quizId));
+    }
 
-        List<QuizAttempt> attempts = attemptRepository.findByQuizId(quizId).stream()
-                .filter(a -> a.getStatus() == QuizAttempt.AttemptStatus.EVALUATED)
+    public List<QuizAnalyticsResponse> getAnalyticsOverview() {
+        Map<Long, QuizStatsService.Totals> stats = quizStatsService.getAll();
+        return quizRepository.findAllTitles().stream()
+                .map(q -> toAnalyticsResponse(q.getId(), q.getTitle(),
+                        stats.getOrDefault(q.getId(), QuizStatsService.Totals.EMPTY)))
                 .collect(Collectors.toList());
+    }
 
-        if (attempts.isEmpty()) {
-            return new QuizAnalyticsResponse(quizId, quiz.getTitle(), 0, 0.0, 0, 0);
+    /**
+     * Score distribution of a quiz grouped into equal-width buckets, by default one per point
+     * up to 20 points and ten buckets above that.
+     */
+    public ScoreHistogramResponse getScoreHistogram(Long quizId, Integer bucketCount) {
+        if (!quizRepository.existsById(quizId)) {
+            throw new ResourceNotFoundException("Quiz", quizId);
+        }
+        if (bucketCount != null && (bucketCount < 1 || bucketCount > 1000)) {
+            throw new IllegalArgumentException("buckets must be between 1 and 1000");
         }
+        long[] counts = quizStatsService.scoreCounts(quizId);
+        int totalPoints = answerKeyCache.get(quizId).totalPoints();
+        int maxScore = Math.max(totalPoints, counts.length - 1);
+        int buckets = bucketCount != null ? bucketCount : (maxScore <= 20 ? maxScore + 1 : 10);
+        int width = Math.max(1, (maxScore + buckets) / buckets);
+
+        List<ScoreBucket> result = new ArrayList<>();
+        long totalAttempts = 0;
+        for (int from = 0; from <= maxScore; from += width) {
+            int to = Math.min(maxScore, from + width - 1);
+            long count = 0;
+            for (int score = from; score <= to && score < counts.length; score++) {
+                count += counts[score];
+            }
+            totalAttempts += count;
+            result.add(new ScoreBucket(from, to, count));
+        }
+        return new ScoreHistogramResponse(quizId, totalPoints, totalAttempts, result);
+    }
 
-        int totalAttempts = attempts.size();
-        double averageScore = attempts.stream()
-                .mapToInt(QuizAttempt::getScore)
-                .average()
-                .orElse(0.0);
-        int highestScore = attempts.stream()
-                .mapToInt(QuizAttempt::getScore)
-                .max()
-                .orElse(0);
-        int lowestScore = attempts.stream()
-                .mapToInt(QuizAttempt::getScore)
-                .min()
-                .orElse(0);
-
-        return new QuizAnalyticsResponse(quizId, quiz.getTitle(), totalAttempts, 
-                averageScore, highestScore, lowestScore);
+    public QuizAnalyticsResponse rebuildQuizAnalytics(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz", quizId));
+        return toAnalyticsResponse(quizId, quiz.getTitle(), quizStatsService.rebuild(quizId));
     }
 
-    public List<AdminAttemptResponse> getAllAttempts() {
-        return attemptRepository.findAll().stream()
-                .filter(a -> a.getStatus() == QuizAttempt.AttemptStatus.EVALUATED)
-                .map(this::toAdminAttemptResponse)
-                .collect(Collectors.toList());
+    public List<QuizAnalyticsResponse> rebuildAnalytics() {
+        quizStatsService.rebuildAll();
+        return getAnalyticsOverview();
+    }
+
+    /**
+     * Attempts newest first, all filters optional. Status defaults to EVALUATED and the
+     * date range applies to the submission time, both ends inclusive. Pages hold
+     * {@link Paging#DEFAULT_PAGE_SIZE} attempts unless size says otherwise.
+     */
+    public CursorPage<AdminAttemptResponse> getAttempts(Long quizId, Long userId, QuizAttempt.AttemptStatus status,
+                                                        LocalDateTime from, LocalDateTime to,
+                                                        Long cursor, Integer size) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int pageSize = Paging.pageSize(size);
+        List<AdminAttemptResponse> rows = attemptRepository.findAdminAttempts(quizId, userId,
+                status != null ? status : QuizAttempt.AttemptStatus.EVALUATED,
+                from, to, cursor, pageSize + 1);
+        return CursorPage.of(rows, pageSize, AdminAttemptResponse::id);
     }
 
     public boolean isQuizEditable(Long quizId) {
@@ -265,33 +354,50 @@ public class AdminService {
         return attempts.isEmpty();
     }
 
-    private AdminAttemptResponse toAdminAttemptResponse(QuizAttempt attempt) {
-        return new AdminAttemptResponse(
-                attempt.getId(),
-                attempt.getQuiz().getId(),
-                attempt.getQuiz().getTitle(),
-                attempt.getUser().getName(),
-                attempt.getUser().getEmail(),
-                attempt.getStartedAt(),
-                attempt.getSubmittedAt(),
-                attempt.getScore(),
-                attempt.getTotalPoints(),
-                attempt.getStatus().name(),
-                attempt.getTimeTakenMinutes(),
-                attempt.getExceededTimeLimit()
-        );
+    /**
+     * Copies points, correct flags and accepted answers onto the existing questions and options.
+     * Only called once the request is known to match the quiz structure id for id.
+     */
+    private void applyAnswerKey(Quiz quiz, List<QuestionRequest> questions) {
+        Map<Long, Question> existingQuestions = quiz.getQuestions().stream()
+                .collect(Collectors.toMap(Question::getId, q -> q));
+        for (QuestionRequest qReq : questions) {
+            Question question = existingQuestions.get(qReq.id());
+            question.setPoints(qReq.points() != null ? qReq.points() : 1);
+            if (qReq.options() != null) {
+                Map<Long, Option> existingOptions = question.getOptions().stream()
+                        .collect(Collectors.toMap(Option::getId, o -> o));
+                for (OptionRequest oReq : qReq.options()) {
+                    Option option = existingOptions.get(oReq.id());
+                    option.setOptionText(oReq.optionText());
+                    option.setIsCorrect(oReq.isCorrect());
+                }
+            }
+            checkAcceptedAnswers(question);
+        }
     }
 
-    private QuizSummaryResponse toSummaryResponse(Quiz quiz) {
-        return new QuizSummaryResponse(
-                quiz.getId(),
-                quiz.getTitle(),
-                quiz.getDescription(),
-                quiz.getDuration(),
-                quiz.getIsActive(),
-                quiz.getCreatedBy().getName(),
-                quiz.getCreatedAt(),
-                quiz.getQuestions().size()
+    /**
+     * Compiles a short answer question's accepted answers up front so a bad rule
+     * is rejected when the quiz is saved, not when it is graded.
+     */
+    private void checkAcceptedAnswers(Question question) {
+        if (question.getType() == Question.QuestionType.SHORT_ANSWER) {
+            AnswerKey.compileMatcher(question);
+        }
+    }
+
+    private QuizAnalyticsResponse toAnalyticsResponse(Long quizId, String title, QuizStatsService.Totals stats) {
+        return new QuizAnalyticsResponse(
+                quizId,
+                title,
+                (int) stats.attempts(),
+                stats.average(),
+                stats.maxScore() != null ? stats.maxScore() : 0,
+                stats.minScore() != null ? stats.minScore() : 0,
+                stats.stdDev(),
+                stats.passRate(),
+                stats.exceeded()
         );
     }
 
@@ -0,0 +1,314 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.AnswerRequest;
+import com.quizforge.exception.ConflictException;
+import com.quizforge.exception.ForbiddenException;
+import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.grading.AttemptGrader;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.repository.AnswerRepository;
+import com.quizforge.repository.QuizAttemptRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for answers autosaved while an attempt is IN_PROGRESS.
+ * Changes are kept per attempt and per question, so repeated edits of the same
+ * question collapse into one row write, and are flushed to the answers table
+ * in batches every quiz.autosave.flush-interval-ms.
+ * A finalized attempt keeps its closed buffer as a tombstone until it goes idle,
+ * so saves racing the finalizing transaction are refused instead of reopening it.
+ */
+@Component
+public class AnswerAutosaveBuffer {
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private AttemptGrader attemptGrader;
+
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final long idleTimeoutMillis;
+
+    private final Map<Long, AttemptBuffer> buffers = new ConcurrentHashMap<>();
+
+    /**
+     * Pending answers of one attempt. The lock only guards draining and closing, never a query:
+     * a flush drains under it and writes afterwards, so saves are not held up by the database.
+     * A finalizing submit waits for the in-flight flush instead of racing it, and takes over
+     * whatever that flush failed to write. Saves take the lock too, so a change is either drained or refused.
+     */
+    private static final class AttemptBuffer {
+        final Long attemptId;
+        final Long quizId;
+        final Long ownerId;
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, AnswerRequest> changes = new ConcurrentHashMap<>();
+        volatile boolean closed;
+        volatile boolean evicted; // removed from the map, a save holding it must open a new one
+        volatile long lastTouched = System.currentTimeMillis();
+        // Completes once the changes drained by the running flush are written, with those it could not write
+        volatile CompletableFuture<Collection<AnswerRequest>> inFlight = CompletableFuture.completedFuture(List.of());
+
+        AttemptBuffer(Long attemptId, Long quizId, Long ownerId) {
+            this.attemptId = attemptId;
+            this.quizId = quizId;
+            this.ownerId = ownerId;
+        }
+
+        // Caller holds the lock
+        Collection<AnswerRequest> drain() {
+            List<AnswerRequest> drained = new ArrayList<>(changes.size());
+            for (Long questionId : new ArrayList<>(changes.keySet())) {
+                AnswerRequest change = changes.remove(questionId);
+                if (change != null) {
+                    drained.add(change);
+                }
+            }
+            return drained;
+        }
+    }
+
+    public AnswerAutosaveBuffer(PlatformTransactionManager transactionManager,
+                                @Value("${quiz.autosave.batch-size:200}") int batchSize,
+                                @Value("${quiz.autosave.idle-timeout-ms:600000}") long idleTimeoutMillis) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Buffers one answer. Only the first save of an attempt reads the database,
+     * later saves are checked against the cached owner and the compiled answer key.
+     */
+    public void save(Long attemptId, Long candidateId, AnswerRequest answer) {
+        while (true) {
+            AttemptBuffer buffer = buffers.get(attemptId);
+            if (buffer == null) {
+                // The query runs outside any map lock; a buffer opened meanwhile by a racing save or finalizer wins
+                AttemptBuffer opened = open(attemptId);
+                buffer = buffers.putIfAbsent(attemptId, opened);
+                if (buffer == null) {
+                    buffer = opened;
+                }
+            }
+
+            if (!buffer.ownerId.equals(candidateId)) {
+                throw new ForbiddenException("Unauthorized");
+            }
+            attemptGrader.validate(buffer.quizId, answer);
+
+            buffer.lock.lock();
+            try {
+                if (buffer.evicted) {
+                    continue;
+                }
+                if (buffer.closed) {
+                    throw new ConflictException("Quiz already submitted");
+                }
+                buffer.changes.put(answer.questionId(), answer);
+                buffer.lastTouched = System.currentTimeMillis();
+                return;
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Closes the buffer of an attempt that is being finalized and hands over its pending answers,
+     * waiting for a running flush of the attempt first. Once this returns, no flush of the attempt is running or will run and later saves are refused,
+     * so the caller can read the answers table and merge the returned changes without duplicating rows.
+     * If the caller's transaction rolls back, the buffer is reopened with the drained changes.
+     */
+    public Collection<AnswerRequest> drainForFinalize(QuizAttempt attempt) {
+        Long attemptId = attempt.getId();
+        AttemptBuffer buffer;
+        Collection<AnswerRequest> drained;
+        CompletableFuture<Collection<AnswerRequest>> inFlight;
+        while (true) {
+            // getId() on the lazy quiz and user proxies does not hit the database
+            buffer = buffers.computeIfAbsent(attemptId,
+                    id -> new AttemptBuffer(id, attempt.getQuiz().getId(), attempt.getUser().getId()));
+            buffer.lock.lock();
+            try {
+                if (buffer.evicted) {
+                    continue;
+                }
+                if (buffer.closed) {
+                    // Another finalization got here first and owns the pending changes
+                    return List.of();
+                }
+                buffer.closed = true;
+                buffer.lastTouched = System.currentTimeMillis();
+                drained = buffer.drain();
+                inFlight = buffer.inFlight;
+                break;
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+
+        // Changes the running flush could not write are older than the drained ones, which override them per question
+        List<AnswerRequest> changes = new ArrayList<>(inFlight.join());
+        changes.addAll(drained);
+        reopenOnRollback(buffer, changes);
+        return changes;
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.autosave.flush-interval-ms:2000}")
+    public void flush() {
+        Map<AttemptBuffer, Collection<AnswerRequest>> batch = new LinkedHashMap<>();
+        long idleBefore = System.currentTimeMillis() - idleTimeoutMillis;
+
+        for (AttemptBuffer buffer : buffers.values()) {
+            if (buffer.changes.isEmpty()) {
+                if (buffer.lastTouched < idleBefore) {
+                    evictIfIdle(buffer.attemptId, idleBefore);
+                }
+                continue;
+            }
+            buffer.lock.lock();
+            try {
+                // A closed buffer was drained by its finalizer and stays empty
+                if (buffer.closed) {
+                    continue;
+                }
+                batch.put(buffer, buffer.drain());
+                buffer.inFlight = new CompletableFuture<>();
+            } finally {
+                buffer.lock.unlock();
+            }
+            if (batch.size() == batchSize) {
+                flushBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    /**
+     * Nothing pending for a long time, the next save simply reopens it; a tombstone by then
+     * belongs to a committed finalization, so reopening finds the attempt closed.
+     * A buffer that is locked or was touched meanwhile is kept.
+     */
+    private void evictIfIdle(Long attemptId, long idleBefore) {
+        buffers.computeIfPresent(attemptId, (id, buffer) -> {
+            if (!buffer.lock.tryLock()) {
+                return buffer;
+            }
+            try {
+                if (!buffer.changes.isEmpty() || buffer.lastTouched >= idleBefore || !buffer.inFlight.isDone()) {
+                    return buffer;
+                }
+                buffer.evicted = true;
+                return null;
+            } finally {
+                buffer.lock.unlock();
+            }
+        });
+    }
+
+    private void reopenOnRollback(AttemptBuffer buffer, Collection<AnswerRequest> drained) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                buffer.lock.lock();
+                try {
+                    drained.forEach(change -> buffer.changes.putIfAbsent(change.questionId(), change));
+                    buffer.closed = false;
+                    buffer.lastTouched = System.currentTimeMillis();
+                } finally {
+                    buffer.lock.unlock();
+                }
+            }
+        });
+    }
+
+    private AttemptBuffer open(Long attemptId) {
+        QuizAttempt attempt = attemptRepository.findById(attemptId)
+                .orElseThrow(() -> new ResourceNotFoundException("QuizAttempt", attemptId));
+        if (attempt.getStatus() != QuizAttempt.AttemptStatus.IN_PROGRESS) {
+            throw new ConflictException("Quiz already submitted");
+        }
+        // getId() on the lazy quiz and user proxies does not hit the database
+        return new AttemptBuffer(attemptId, attempt.getQuiz().getId(), attempt.getUser().getId());
+    }
+
+    // Runs without any buffer lock; every buffer's in-flight future is completed here
+    private void flushBatch(Map<AttemptBuffer, Collection<AnswerRequest>> batch) {
+        Map<Long, Collection<AnswerRequest>> drained = new LinkedHashMap<>();
+        batch.forEach((buffer, changes) -> drained.put(buffer.attemptId, changes));
+        Set<Long> written = new HashSet<>();
+        boolean failed = false;
+        try {
+            tx.executeWithoutResult(status -> {
+                List<QuizAttempt> attempts = attemptRepository.findWithAnswersByIdInAndStatus(
+                        drained.keySet(), QuizAttempt.AttemptStatus.IN_PROGRESS);
+                for (QuizAttempt attempt : attempts) {
+                    answerRepository.saveAll(attemptGrader.recordAnswers(attempt, drained.get(attempt.getId())));
+                    written.add(attempt.getId());
+                }
+            });
+        } catch (RuntimeException e) {
+            failed = true;
+            System.err.println("Autosave flush of " + drained.keySet() + " failed: " + e.getMessage());
+        }
+
+        for (Map.Entry<AttemptBuffer, Collection<AnswerRequest>> entry : batch.entrySet()) {
+            AttemptBuffer buffer = entry.getKey();
+            Collection<AnswerRequest> changes = entry.getValue();
+            Collection<AnswerRequest> unwritten = List.of();
+            buffer.lock.lock();
+            try {
+                if (failed) {
+                    if (buffer.closed) {
+                        // Drained by a finalizer meanwhile, it waits for these and records them itself
+                        unwritten = changes;
+                    } else {
+                        // Put the changes back unless a newer edit of the same question arrived meanwhile
+                        changes.forEach(change -> buffer.changes.putIfAbsent(change.questionId(), change));
+                    }
+                } else if (!written.contains(buffer.attemptId)) {
+                    // Only reachable when a finalization committed elsewhere, e.g. on another instance
+                    buffer.closed = true;
+                    System.err.println("Dropped " + changes.size() + " autosaved answers of attempt "
+                            + buffer.attemptId + ", it was already submitted");
+                }
+            } finally {
+                buffer.lock.unlock();
+            }
+            buffer.inFlight.complete(unwritten);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.quizforge.service;
+
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.repository.QuizAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes IN_PROGRESS attempts once their time limit (plus a grace period) has passed.
+ * Every open attempt sits in a hierarchical {@link TimingWheel} with one-second ticks,
+ * so scheduling and cancelling are O(1) and a single ticker thread serves any number
+ * of attempts. Expired attempts are finalized in batches on a separate thread and the
+ * wheel is rebuilt from the database when the application starts.
+ */
+@Component
+public class AttemptDeadlineScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    @Autowired
+    private AttemptFinalizer attemptFinalizer;
+
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final long graceSeconds;
+    private final int batchSize;
+
+    // Owned by the ticker thread; producers only touch the queues and the index below
+    private final TimingWheel wheel = new TimingWheel(currentTick());
+    private final Queue<TimingWheel.Entry> additions = new ConcurrentLinkedQueue<>();
+    private final Map<Long, TimingWheel.Entry> scheduled = new ConcurrentHashMap<>();
+    private final Queue<Long> expired = new ConcurrentLinkedQueue<>();
+
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService finalizer;
+
+    public AttemptDeadlineScheduler(PlatformTransactionManager transactionManager,
+                                    @Value("${quiz.deadline.enabled:true}") boolean enabled,
+                                    @Value("${quiz.deadline.grace-seconds:30}") long graceSeconds,
+                                    @Value("${quiz.deadline.batch-size:200}") int batchSize,
+                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.graceSeconds = graceSeconds;
+        this.batchSize = batchSize;
+        if (enabled) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("attempt-deadline-ticker").daemon().factory());
+            this.finalizer = Executors.newSingleThreadExecutor(virtualThreads
+                    ? Thread.ofVirtual().name("attempt-deadline-finalizer").factory()
+                    : Thread.ofPlatform().name("attempt-deadline-finalizer").daemon().factory());
+            ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+            this.finalizer = null;
+        }
+    }
+
+    /**
+     * Tracks the attempt's deadline once the current transaction has committed it.
+     */
+    public void scheduleAfterCommit(Long attemptId, LocalDateTime startedAt, Integer durationMinutes) {
+        afterCommit(() -> schedule(attemptId, startedAt, durationMinutes));
+    }
+
+    /**
+     * Stops tracking the attempt once the current transaction has committed its submission.
+     */
+    public void cancelAfterCommit(Long attemptId) {
+        afterCommit(() -> cancel(attemptId));
+    }
+
+    public int openAttempts() {
+        return scheduled.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        List<QuizAttemptRepository.OpenAttempt> open = attemptRepository.findOpenAttempts(
+                QuizAttempt.AttemptStatus.IN_PROGRESS);
+        for (QuizAttemptRepository.OpenAttempt attempt : open) {
+            schedule(attempt.getId(), attempt.getStartedAt(), attempt.getDuration());
+        }
+        System.out.println("Attempt deadline scheduler tracking " + open.size() + " open attempts");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            finalizer.shutdownNow();
+        }
+    }
+
+    private void schedule(Long attemptId, LocalDateTime startedAt, Integer durationMinutes) {
+        if (!enabled || startedAt == null || durationMinutes == null) {
+            return;
+        }
+        LocalDateTime deadline = startedAt.plusMinutes(durationMinutes).plusSeconds(graceSeconds);
+        // Round up so an attempt never closes before its deadline
+        long expirationTick = Math.floorDiv(toMillis(deadline) + TICK_MILLIS - 1, TICK_MILLIS);
+        TimingWheel.Entry entry = new TimingWheel.Entry(attemptId, expirationTick);
+        TimingWheel.Entry previous = scheduled.put(attemptId, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        additions.add(entry);
+    }
+
+    private void cancel(Long attemptId) {
+        TimingWheel.Entry entry = scheduled.remove(attemptId);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    private void tick() {
+        try {
+            int before = expired.size();
+            TimingWheel.Entry entry;
+            while ((entry = additions.poll()) != null) {
+                wheel.add(entry, expired::add);
+            }
+            wheel.advanceTo(currentTick(), expired::add);
+            if (expired.size() > before) {
+                finalizer.execute(this::finalizeExpired);
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            System.err.println("Attempt deadline tick failed: " + e.getMessage());
+        }
+    }
+
+    private void finalizeExpired() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        Long attemptId;
+        while ((attemptId = expired.poll()) != null) {
+            batch.add(attemptId);
+            if (batch.size() == batchSize) {
+                finalizeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            finalizeBatch(batch);
+        }
+    }
+
+    /**
+     * Closes the attempts in one transaction. If that fails, each attempt gets a transaction of
+     * its own, so one attempt that cannot be closed only delays itself.
+     */
+    private void finalizeBatch(List<Long> attemptIds) {
+        try {
+            int closed = closeExpired(attemptIds);
+            attemptIds.forEach(id -> scheduled.remove(id));
+            if (closed > 0) {
+                System.out.println("Auto-submitted " + closed + " expired attempts");
+            }
+        } catch (RuntimeException e) {
+            if (attemptIds.size() == 1) {
+                retryLater(attemptIds.get(0), e);
+                return;
+            }
+            System.err.println("Auto-submitting attempts " + attemptIds + " failed, closing them one by one: " + e.getMessage());
+            for (Long id : attemptIds) {
+                try {
+                    closeExpired(List.of(id));
+                    scheduled.remove(id);
+                } catch (RuntimeException single) {
+                    retryLater(id, single);
+                }
+            }
+        }
+    }
+
+    private int closeExpired(List<Long> attemptIds) {
+        return tx.execute(status -> {
+            // Attempts submitted in the meantime are no longer IN_PROGRESS and drop out here
+            List<QuizAttempt> attempts = attemptRepository.findWithAnswersByIdInAndStatus(
+                    attemptIds, QuizAttempt.AttemptStatus.IN_PROGRESS);
+            for (QuizAttempt attempt : attempts) {
+                LocalDateTime submittedAt = attempt.getStartedAt().plusMinutes(attempt.getQuiz().getDuration());
+                attemptFinalizer.finalizeAttempt(attempt, null, submittedAt);
+            }
+            return attempts.size();
+        });
+    }
+
+    // Retry in a minute rather than dropping the attempt
+    private void retryLater(Long attemptId, RuntimeException e) {
+        System.err.println("Auto-submitting attempt " + attemptId + " failed: " + e.getMessage());
+        TimingWheel.Entry entry = new TimingWheel.Entry(attemptId, currentTick() + 60);
+        if (scheduled.replace(attemptId, entry) != null) {
+            additions.add(entry);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long currentTick() {
+        return System.currentTimeMillis() / TICK_MILLIS;
+    }
+}
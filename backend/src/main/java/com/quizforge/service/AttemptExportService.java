@@ -0,0 +1,317 @@
+package com.quizforge.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizforge.model.QuizAttempt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exports attempts with their answers as CSV (one line per answer) or NDJSON (one line per attempt).
+ * Rows come from a forward-only cursor and are written to the response as they are read,
+ * so heap use does not grow with the number of attempts exported.
+ */
+@Service
+public class AttemptExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("format must be csv or ndjson");
+            }
+        }
+    }
+
+    private static final String SELECT_ROWS =
+            "select t.id as attempt_id, t.quiz_id, q.title as quiz_title, t.user_id, u.name as candidate_name, " +
+            "u.email as candidate_email, t.started_at, t.submitted_at, t.status, t.score, t.total_points, " +
+            "t.time_taken_minutes, t.exceeded_time_limit, a.id as answer_id, a.question_id, " +
+            "a.selected_option_id, a.text_answer, a.is_correct, a.points_earned " +
+            "from quiz_attempts t " +
+            "join quizzes q on q.id = t.quiz_id " +
+            "join users u on u.id = t.user_id " +
+            "left join answers a on a.attempt_id = t.id " +
+            "where 1 = 1 ";
+
+    private static final String CSV_HEADER =
+            "attempt_id,quiz_id,quiz_title,user_id,candidate_name,candidate_email,started_at,submitted_at," +
+            "status,score,total_points,time_taken_minutes,exceeded_time_limit,question_id,selected_option_id," +
+            "text_answer,is_correct,points_earned\n";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate readTx;
+
+    public AttemptExportService(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${quiz.export.fetch-size:1000}") int fetchSize) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(fetchSize);
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /**
+     * Validates the filters up front and returns a body that streams the matching attempts.
+     * Every filter is optional; the date range applies to the submission time, both ends inclusive.
+     */
+    public StreamingResponseBody export(Format format, Long quizId, QuizAttempt.AttemptStatus status,
+                                        LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        StringBuilder sql = new StringBuilder(SELECT_ROWS);
+        List<Object> args = new ArrayList<>();
+        if (quizId != null) {
+            sql.append("and t.quiz_id = ? ");
+            args.add(quizId);
+        }
+        if (status != null) {
+            sql.append("and t.status = ? ");
+            args.add(status.name());
+        }
+        if (from != null) {
+            sql.append("and t.submitted_at >= ? ");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append("and t.submitted_at <= ? ");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append("order by t.id, a.id");
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            RowWriter rowWriter = format == Format.CSV ? new CsvWriter(writer) : new NdjsonWriter(writer);
+            // The PostgreSQL driver only honours the fetch size inside a transaction
+            readTx.executeWithoutResult(tx -> streamingJdbc.query(sql.toString(), rs -> {
+                try {
+                    rowWriter.row(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // client went away, stop reading
+                }
+            }, args.toArray()));
+            rowWriter.finish();
+            writer.flush();
+        };
+    }
+
+    private interface RowWriter {
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            writer.write(String.valueOf(rs.getLong("attempt_id")));
+            number(rs, "quiz_id");
+            text(rs.getString("quiz_title"));
+            number(rs, "user_id");
+            text(rs.getString("candidate_name"));
+            text(rs.getString("candidate_email"));
+            time(rs, "started_at");
+            time(rs, "submitted_at");
+            text(rs.getString("status"));
+            number(rs, "score");
+            number(rs, "total_points");
+            number(rs, "time_taken_minutes");
+            bool(rs, "exceeded_time_limit");
+            number(rs, "question_id");
+            number(rs, "selected_option_id");
+            text(rs.getString("text_answer"));
+            bool(rs, "is_correct");
+            number(rs, "points_earned");
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void number(ResultSet rs, String column) throws SQLException, IOException {
+            long value = rs.getLong(column);
+            writer.write(',');
+            if (!rs.wasNull()) {
+                writer.write(String.valueOf(value));
+            }
+        }
+
+        private void bool(ResultSet rs, String column) throws SQLException, IOException {
+            boolean value = rs.getBoolean(column);
+            writer.write(',');
+            if (!rs.wasNull()) {
+                writer.write(String.valueOf(value));
+            }
+        }
+
+        private void time(ResultSet rs, String column) throws SQLException, IOException {
+            Timestamp value = rs.getTimestamp(column);
+            writer.write(',');
+            if (value != null) {
+                writer.write(value.toLocalDateTime().toString());
+            }
+        }
+
+        private void text(String value) throws IOException {
+            writer.write(',');
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            // Spreadsheets run cells starting with these as formulas
+            char first = value.charAt(0);
+            if (first == '=' || first == '+' || first == '-' || first == '@') {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * Groups the answer rows of an attempt into one JSON object; rows arrive ordered by attempt.
+     */
+    private final class NdjsonWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator json;
+        private long attemptId = -1;
+
+        NdjsonWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.json = objectMapper.getFactory().createGenerator(writer);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.json.setRootValueSeparator(null); // lines are ended here, not by the generator
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            long rowAttemptId = rs.getLong("attempt_id");
+            if (rowAttemptId != attemptId) {
+                endAttempt();
+                attemptId = rowAttemptId;
+                json.writeStartObject();
+                json.writeNumberField("attemptId", rowAttemptId);
+                number(rs, "quizId", "quiz_id");
+                json.writeStringField("quizTitle", rs.getString("quiz_title"));
+                number(rs, "userId", "user_id");
+                json.writeStringField("candidateName", rs.getString("candidate_name"));
+                json.writeStringField("candidateEmail", rs.getString("candidate_email"));
+                time(rs, "startedAt", "started_at");
+                time(rs, "submittedAt", "submitted_at");
+                json.writeStringField("status", rs.getString("status"));
+                number(rs, "score", "score");
+                number(rs, "totalPoints", "total_points");
+                number(rs, "timeTakenMinutes", "time_taken_minutes");
+                bool(rs, "exceededTimeLimit", "exceeded_time_limit");
+                json.writeArrayFieldStart("answers");
+            }
+            rs.getLong("answer_id");
+            if (rs.wasNull()) {
+                return; // attempt without answers
+            }
+            json.writeStartObject();
+            number(rs, "questionId", "question_id");
+            number(rs, "selectedOptionId", "selected_option_id");
+            json.writeStringField("textAnswer", rs.getString("text_answer"));
+            bool(rs, "isCorrect", "is_correct");
+            number(rs, "pointsEarned", "points_earned");
+            json.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            endAttempt();
+            json.close();
+        }
+
+        private void endAttempt() throws IOException {
+            if (attemptId < 0) {
+                return;
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.flush();
+            writer.write('\n');
+        }
+
+        private void number(ResultSet rs, String field, String column) throws SQLException, IOException {
+            long value = rs.getLong(column);
+            if (rs.wasNull()) {
+                json.writeNullField(field);
+            } else {
+                json.writeNumberField(field, value);
+            }
+        }
+
+        private void bool(ResultSet rs, String field, String column) throws SQLException, IOException {
+            boolean value = rs.getBoolean(column);
+            if (rs.wasNull()) {
+                json.writeNullField(field);
+            } else {
+                json.writeBooleanField(field, value);
+            }
+        }
+
+        private void time(ResultSet rs, String field, String column) throws SQLException, IOException {
+            Timestamp value = rs.getTimestamp(column);
+            json.writeStringField(field, value != null ? value.toLocalDateTime().toString() : null);
+        }
+    }
+}
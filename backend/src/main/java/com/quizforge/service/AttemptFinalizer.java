@@ -0,0 +1,102 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.AnswerRequest;
+import com.quizforge.exception.ConflictException;
+import com.quizforge.grading.AttemptGrader;
+import com.quizforge.model.Quiz;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.repository.AnswerRepository;
+import com.quizforge.repository.QuizAttemptRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closes an IN_PROGRESS attempt: records its final answers, stamps the timing and
+ * either grades it right away or hands it to the submission workers.
+ * Shared by candidate submissions and deadline auto-submission; runs inside the caller's transaction.
+ */
+@Component
+public class AttemptFinalizer {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private AttemptGrader attemptGrader;
+
+    @Autowired
+    private AnswerAutosaveBuffer answerAutosaveBuffer;
+
+    @Autowired
+    private SubmissionWorker submissionWorker;
+
+    @Value("${quiz.submission.async:false}")
+    private boolean asyncSubmission;
+
+    /**
+     * @param submitted   answers sent with the submission, may be null
+     * @param submittedAt time the attempt counts as submitted
+     */
+    public QuizAttempt finalizeAttempt(QuizAttempt attempt, List<AnswerRequest> submitted, LocalDateTime submittedAt) {
+        // Autosaved answers still in memory come first, the submitted ones override them per question
+        List<AnswerRequest> answers = new ArrayList<>(answerAutosaveBuffer.drainForFinalize(attempt));
+        if (submitted != null) {
+            answers.addAll(submitted);
+        }
+        // The drain waited for a running autosave flush; re-read so the answers it wrote are in the collection
+        entityManager.refresh(attempt);
+        if (attempt.getStatus() != QuizAttempt.AttemptStatus.IN_PROGRESS) {
+            throw new ConflictException("Quiz already submitted");
+        }
+
+        // Calculate time taken and validate time limit
+        Quiz quiz = attempt.getQuiz();
+        LocalDateTime startTime = attempt.getStartedAt();
+
+        // Handle case where startedAt might be null (legacy data)
+        if (startTime == null) {
+            startTime = submittedAt.minusMinutes(quiz.getDuration());
+            attempt.setStartedAt(startTime);
+        }
+
+        long elapsedSeconds = java.time.Duration.between(startTime, submittedAt).getSeconds();
+
+        attempt.setTimeTakenMinutes(elapsedSeconds);
+
+        long elapsedMinutes = elapsedSeconds / 60;
+        if (elapsedMinutes > quiz.getDuration()) {
+            attempt.setExceededTimeLimit(true);
+            System.out.println("Warning: Quiz submitted after time limit. Elapsed: " + elapsedMinutes + " minutes, Allowed: " + quiz.getDuration() + " minutes");
+        } else {
+            attempt.setExceededTimeLimit(false);
+        }
+
+        // Ids come from the pooled sequence, so the inserts are flushed as one JDBC batch at commit
+        answerRepository.saveAll(attemptGrader.recordAnswers(attempt, answers));
+        attempt.setSubmittedAt(submittedAt);
+
+        if (asyncSubmission) {
+            // Answers are durable now; grading happens on the submission workers after commit
+            attempt.setStatus(QuizAttempt.AttemptStatus.SUBMITTED);
+            attempt = attemptRepository.save(attempt);
+            submissionWorker.enqueueAfterCommit(attempt.getId());
+            return attempt;
+        }
+
+        attemptGrader.grade(attempt);
+        return attemptRepository.save(attempt);
+    }
+}
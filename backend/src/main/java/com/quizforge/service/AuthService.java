@@ -1,15 +1,20 @@
 package com.quizforge.service;
 
+import com.quizforge.dto.LoginMetricsResponse;
 import com.quizforge.dto.LoginRequest;
 import com.quizforge.dto.LoginResponse;
+import com.quizforge.dto.RefreshTokenRequest;
 import com.quizforge.exception.UnauthorizedException;
 import com.quizforge.model.User;
 import com.quizforge.repository.UserRepository;
-import com.quizforge.security.JwtUtil;
+import com.quizforge.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthService {
 
@@ -17,24 +22,47 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
+    // Runs the database work after a password check, so it ties up neither a request thread nor a hashing worker
     @Autowired
-    private JwtUtil jwtUtil;
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
 
-    public LoginResponse login(LoginRequest request) {
+    /**
+     * Logs in without holding the request thread while the password is checked.
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         // Find user by email
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> new UnauthorizedException("Invalid email or password"));
         
-        // Verify password using BCrypt
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
-            throw new UnauthorizedException("Invalid email or password");
-        }
-        
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-        
-        return new LoginResponse(token, user.getEmail(), user.getName(), user.getRole().name());
+        // Verify password using BCrypt, off the request thread
+        return passwordVerifier.verify(request.password(), user.getPassword()).thenApplyAsync(check -> {
+            if (!check.matches()) {
+                throw new UnauthorizedException("Invalid email or password");
+            }
+            if (check.upgradedHash() != null) {
+                userRepository.updatePassword(user.getId(), check.upgradedHash());
+            }
+
+            // Generate a short-lived JWT and the refresh token that renews it
+            return refreshTokenService.issue(user);
+        }, taskExecutor);
+    }
+
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        return refreshTokenService.refresh(request.refreshToken());
+    }
+
+    public void logout(RefreshTokenRequest request, AuthenticatedUser caller) {
+        refreshTokenService.logout(request != null ? request.refreshToken() : null, caller);
+    }
+
+    public LoginMetricsResponse getLoginMetrics() {
+        return passwordVerifier.metrics();
     }
 }
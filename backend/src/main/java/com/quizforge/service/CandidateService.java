@@ -3,15 +3,20 @@ package com.quizforge.service;
 import com.quizforge.dto.*;
 import com.quizforge.dto.DetailedAttemptResponse;
 import com.quizforge.dto.CandidateAnswerResponse;
+import com.quizforge.exception.ConflictException;
+import com.quizforge.exception.ForbiddenException;
 import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.grading.AnswerKeyCache;
 import com.quizforge.model.*;
 import com.quizforge.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,166 +32,145 @@ public class CandidateService {
     private UserRepository userRepository;
 
     @Autowired
-    private QuestionRepository questionRepository;
+    private QuizSnapshotCache quizSnapshotCache;
 
     @Autowired
-    private AnswerRepository answerRepository;
+    private AnswerKeyCache answerKeyCache;
 
-    public List<QuizSummaryResponse> getAvailableQuizzes() {
-        return quizRepository.findByIsActiveTrue().stream()
-                .map(this::toSummaryResponse)
-                .collect(Collectors.toList());
+    @Autowired
+    private AnswerAutosaveBuffer answerAutosaveBuffer;
+
+    @Autowired
+    private AttemptFinalizer attemptFinalizer;
+
+    @Autowired
+    private AttemptDeadlineScheduler attemptDeadlineScheduler;
+
+    @Autowired
+    private SubmissionResultCache submissionResultCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private QuizStatsService quizStatsService;
+
+    /**
+     * Active quizzes newest first, {@link Paging#DEFAULT_PAGE_SIZE} per page unless size says otherwise.
+     */
+    public CursorPage<QuizSummaryResponse> getAvailableQuizzes(String search, Long cursor, Integer size) {
+        int pageSize = Paging.pageSize(size);
+        List<QuizSummaryResponse> rows = quizRepository.findSummaries(
+                true, Paging.containsPattern(search), cursor, Paging.limit(pageSize));
+        return CursorPage.of(rows, pageSize, QuizSummaryResponse::id);
     }
 
     @Transactional
-    public AttemptResponse startQuiz(Long quizId, String candidateEmail) {
+    public AttemptResponse startQuiz(Long quizId, Long candidateId) {
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz", quizId));
 
-        User candidate = userRepository.findByEmail(candidateEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", candidateEmail));
-
         QuizAttempt attempt = new QuizAttempt();
         attempt.setQuiz(quiz);
-        attempt.setUser(candidate);
+        // The id comes from the verified token, only the foreign key is needed
+        attempt.setUser(userRepository.getReferenceById(candidateId));
         attempt.setStartedAt(LocalDateTime.now());
         attempt.setStatus(QuizAttempt.AttemptStatus.IN_PROGRESS);
-        attempt.setTotalPoints(quiz.getQuestions().stream()
-                .mapToInt(Question::getPoints)
-                .sum());
+        attempt.setTotalPoints(answerKeyCache.get(quizId).totalPoints());
 
         attempt = attemptRepository.save(attempt);
+        attemptDeadlineScheduler.scheduleAfterCommit(attempt.getId(), attempt.getStartedAt(), quiz.getDuration());
         return toAttemptResponse(attempt);
     }
 
-    public QuizResponse getQuizForAttempt(Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId)
-                .orElseThrow(() -> new ResourceNotFoundException("Quiz", quizId));
-        return toQuizResponseForCandidate(quiz);
+    public QuizSnapshot getQuizForAttempt(Long quizId) {
+        return quizSnapshotCache.get(quizId, QuizSnapshotCache.View.CANDIDATE, () -> {
+            Quiz quiz = quizRepository.findFullById(quizId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Quiz", quizId));
+            return toQuizResponseForCandidate(quiz);
+        });
     }
 
-    @Transactional
-    public AttemptResponse submitQuiz(SubmitQuizRequest request, String candidateEmail) {
-        QuizAttempt attempt = attemptRepository.findById(request.attemptId())
-                .orElseThrow(() -> new ResourceNotFoundException("QuizAttempt", request.attemptId()));
+    /**
+     * Submits an attempt at most once per idempotency key. Retries of a submission that
+     * already ran, or is running, get its result without a new transaction.
+     */
+    public AttemptResponse submitQuiz(SubmitQuizRequest request, Long candidateId) {
+        String key = SubmissionResultCache.key(candidateId, request.attemptId(), request.idempotencyKey());
+        return submissionResultCache.submitOnce(key,
+                () -> transactionTemplate.execute(status -> finalizeSubmission(request, candidateId)));
+    }
 
-        if (!attempt.getUser().getEmail().equals(candidateEmail)) {
-            throw new RuntimeException("Unauthorized");
-        }
+    private AttemptResponse finalizeSubmission(SubmitQuizRequest request, Long candidateId) {
+        QuizAttempt attempt = owned(attemptRepository.findByIdAndUserId(request.attemptId(), candidateId),
+                request.attemptId());
 
         if (attempt.getStatus() != QuizAttempt.AttemptStatus.IN_PROGRESS) {
-            throw new RuntimeException("Quiz already submitted");
-        }
-
-        // Calculate time taken and validate time limit
-        Quiz quiz = attempt.getQuiz();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startTime = attempt.getStartedAt();
-        
-        // Handle case where startedAt might be null (legacy data)
-        if (startTime == null) {
-            startTime = now.minusMinutes(quiz.getDuration());
-            attempt.setStartedAt(startTime);
-        }
-        
-        long elapsedSeconds = java.time.Duration.between(startTime, now).getSeconds();
-        
-        attempt.setTimeTakenMinutes(elapsedSeconds);
-        
-        long elapsedMinutes = elapsedSeconds / 60;
-        if (elapsedMinutes > quiz.getDuration()) {
-            attempt.setExceededTimeLimit(true);
-            System.out.println("Warning: Quiz submitted after time limit. Elapsed: " + elapsedMinutes + " minutes, Allowed: " + quiz.getDuration() + " minutes");
-        } else {
-            attempt.setExceededTimeLimit(false);
+            throw new ConflictException("Quiz already submitted");
         }
 
-        int totalScore = 0;
-
-        for (AnswerRequest ansReq : request.answers()) {
-            Question question = questionRepository.findById(ansReq.questionId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Question", ansReq.questionId()));
-
-            Answer answer = new Answer();
-            answer.setAttempt(attempt);
-            answer.setQuestion(question);
-
-            if (ansReq.selectedOptionId() != null) {
-                Option selectedOption = question.getOptions().stream()
-                        .filter(o -> o.getId().equals(ansReq.selectedOptionId()))
-                        .findFirst()
-                        .orElseThrow(() -> new ResourceNotFoundException("Option", ansReq.selectedOptionId()));
-
-                answer.setSelectedOption(selectedOption);
-                answer.setIsCorrect(selectedOption.getIsCorrect());
-                if (selectedOption.getIsCorrect()) {
-                    answer.setPointsEarned(question.getPoints());
-                    totalScore += question.getPoints();
-                }
-            }
-
-            if (ansReq.textAnswer() != null) {
-                answer.setTextAnswer(ansReq.textAnswer());
-                // For short answer questions, manual grading would be needed
-                // For now, we'll just store the answer
-            }
-
-            attempt.getAnswers().add(answer);
-            answerRepository.save(answer);
-        }
-
-        attempt.setSubmittedAt(LocalDateTime.now());
-        attempt.setScore(totalScore);
-        attempt.setStatus(QuizAttempt.AttemptStatus.EVALUATED);
-
-        attempt = attemptRepository.save(attempt);
+        attempt = attemptFinalizer.finalizeAttempt(attempt, request.answers(), LocalDateTime.now());
+        attemptDeadlineScheduler.cancelAfterCommit(attempt.getId());
         return toAttemptResponse(attempt);
     }
 
-    public List<AttemptResponse> getMyAttempts(String candidateEmail) {
-        User candidate = userRepository.findByEmail(candidateEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", candidateEmail));
+    /**
+     * Saves one answer of an attempt in progress. The write is buffered and reaches
+     * the database with the next autosave flush or, at the latest, with the submission.
+     */
+    public void autosaveAnswer(Long attemptId, AnswerRequest answer, Long candidateId) {
+        answerAutosaveBuffer.save(attemptId, candidateId, answer);
+    }
 
-        return attemptRepository.findByUserId(candidate.getId()).stream()
+    @Transactional(readOnly = true)
+    public List<AttemptResponse> getMyAttempts(Long candidateId) {
+        return attemptRepository.findByUserId(candidateId).stream()
                 .map(this::toAttemptResponse)
                 .collect(Collectors.toList());
     }
 
-    public DetailedAttemptResponse getAttemptResult(Long attemptId, String candidateEmail) {
-        QuizAttempt attempt = attemptRepository.findById(attemptId)
-                .orElseThrow(() -> new ResourceNotFoundException("QuizAttempt", attemptId));
+    /**
+     * Light status check for clients polling an asynchronously graded submission.
+     */
+    @Transactional(readOnly = true)
+    public AttemptResponse getAttemptStatus(Long attemptId, Long candidateId) {
+        QuizAttempt attempt = owned(attemptRepository.findByIdAndUserId(attemptId, candidateId), attemptId);
+        return toAttemptResponse(attempt);
+    }
+
+    @Transactional(readOnly = true)
+    public DetailedAttemptResponse getAttemptResult(Long attemptId, Long candidateId) {
+        QuizAttempt attempt = owned(attemptRepository.findWithAnswersByIdAndUserId(attemptId, candidateId), attemptId);
 
-        if (!attempt.getUser().getEmail().equals(candidateEmail)) {
-            throw new RuntimeException("Unauthorized");
-        }
+        // Pulls questions and options of the quiz into the same session
+        quizRepository.findFullById(attempt.getQuiz().getId());
 
         return toDetailedAttemptResponse(attempt);
     }
 
-    private QuizSummaryResponse toSummaryResponse(Quiz quiz) {
-        return new QuizSummaryResponse(
-                quiz.getId(),
-                quiz.getTitle(),
-                quiz.getDescription(),
-                quiz.getDuration(),
-                quiz.getIsActive(),
-                quiz.getCreatedBy().getName(),
-                quiz.getCreatedAt(),
-                quiz.getQuestions().size()
-        );
+    /**
+     * The attempt found by an id-and-owner query. Only when that finds nothing is the
+     * attempt looked up again, to tell someone else's attempt from a missing one.
+     */
+    private QuizAttempt owned(Optional<QuizAttempt> attempt, Long attemptId) {
+        return attempt.orElseThrow(() -> attemptRepository.existsById(attemptId)
+                ? new ForbiddenException("Unauthorized")
+                : new ResourceNotFoundException("QuizAttempt", attemptId));
     }
 
-    private QuizResponse toQuizResponseForCandidate(Quiz quiz) {
-        // Don't send correct answers to candidates
+    static QuizResponse toQuizResponseForCandidate(Quiz quiz) {
+        // Don't send correct answers to candidates; short answer options are the accepted answers themselves
         List<QuestionResponse> questions = quiz.getQuestions().stream()
                 .map(q -> new QuestionResponse(
                         q.getId(),
                         q.getQuestionText(),
                         q.getType().name(),
                         q.getPoints(),
-                        q.getOptions().stream()
-                                .map(o -> new OptionResponse(o.getId(), o.getOptionText(), null))
-                                .collect(Collectors.toList())
+                        q.getType() == Question.QuestionType.SHORT_ANSWER
+                                ? List.<OptionResponse>of()
+                                : q.getOptions().stream()
+                                        .map(o -> new OptionResponse(o.getId(), o.getOptionText(), null))
+                                        .collect(Collectors.toList())
                 ))
                 .collect(Collectors.toList());
 
@@ -214,11 +198,14 @@ public class CandidateService {
                 attempt.getTotalPoints(),
                 attempt.getStatus().name(),
                 attempt.getTimeTakenMinutes(),
-                attempt.getExceededTimeLimit()
+                attempt.getExceededTimeLimit(),
+                attempt.getStatus() == QuizAttempt.AttemptStatus.EVALUATED && attempt.getScore() != null
+                        ? quizStatsService.percentile(attempt.getQuiz().getId(), attempt.getScore())
+                        : null
         );
     }
 
-    private DetailedAttemptResponse toDetailedAttemptResponse(QuizAttempt attempt) {
+    static DetailedAttemptResponse toDetailedAttemptResponse(QuizAttempt attempt) {
         Quiz quiz = attempt.getQuiz();
         
         List<QuestionResponse> questions = quiz.getQuestions().stream()
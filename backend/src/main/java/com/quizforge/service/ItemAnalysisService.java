@@ -0,0 +1,353 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.ItemAnalysisResponse;
+import com.quizforge.dto.OptionItemAnalysis;
+import com.quizforge.dto.QuestionItemAnalysis;
+import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.grading.AnswerKey;
+import com.quizforge.grading.AnswerKeyCache;
+import com.quizforge.model.Option;
+import com.quizforge.model.Question;
+import com.quizforge.model.Quiz;
+import com.quizforge.repository.QuizRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Item analysis per question and option: difficulty (p-value), point-biserial
+ * discrimination and how often each option was chosen.
+ * Counts are built by one streaming pass over the quiz's answers into primitive arrays
+ * indexed like the {@link AnswerKey}, cached per quiz and then kept current by adding
+ * every newly evaluated attempt. A changed answer key invalidates the counts.
+ * Concurrent reads of an uncached quiz wait for a single pass, whose counts are published only
+ * once complete; attempts evaluated while it runs are added afterwards unless it streamed them.
+ */
+@Service
+public class ItemAnalysisService {
+
+    private static final String STREAM_ANSWERS =
+            "select t.id as attempt_id, t.score, a.question_id, a.selected_option_id, a.is_correct " +
+            "from quiz_attempts t left join answers a on a.attempt_id = t.id " +
+            "where t.quiz_id = ? and t.status = 'EVALUATED' " +
+            "order by t.id";
+
+    /**
+     * Additive counts of one quiz, valid for one compiled answer key.
+     */
+    private static final class ItemCounts {
+        final AnswerKey answerKey;
+        final LongAdder attempts = new LongAdder();
+        final LongAdder scoreSum = new LongAdder();
+        final LongAdder scoreSquareSum = new LongAdder();
+        final AtomicLongArray answered;         // per question
+        final AtomicLongArray correct;          // per question
+        final AtomicLongArray correctScoreSum;  // per question, attempt scores of those who got it right
+        final AtomicLongArray chosen;           // per option
+
+        ItemCounts(AnswerKey answerKey) {
+            this.answerKey = answerKey;
+            this.answered = new AtomicLongArray(answerKey.questionCount());
+            this.correct = new AtomicLongArray(answerKey.questionCount());
+            this.correctScoreSum = new AtomicLongArray(answerKey.questionCount());
+            this.chosen = new AtomicLongArray(answerKey.optionCount());
+        }
+
+        void addAttempt(int score) {
+            attempts.increment();
+            scoreSum.add(score);
+            scoreSquareSum.add((long) score * score);
+        }
+
+        void addAnswer(int score, long questionId, long selectedOptionId, boolean isCorrect) {
+            int questionIndex = answerKey.questionIndex(questionId);
+            if (questionIndex < 0) {
+                return;
+            }
+            answered.incrementAndGet(questionIndex);
+            if (isCorrect) {
+                correct.incrementAndGet(questionIndex);
+                correctScoreSum.addAndGet(questionIndex, score);
+            }
+            int optionIndex = selectedOptionId > 0 ? answerKey.optionIndex(selectedOptionId) : -1;
+            if (optionIndex >= 0) {
+                chosen.incrementAndGet(optionIndex);
+            }
+        }
+    }
+
+    /**
+     * A graded attempt as handed over by the grader.
+     *
+     * @param selectedOptionIds 0 where the answer has no selected option
+     */
+    private record Graded(AnswerKey answerKey, long attemptId, int score,
+                          long[] questionIds, long[] selectedOptionIds, boolean[] correct) {
+
+        void addTo(ItemCounts quizCounts) {
+            quizCounts.addAttempt(score);
+            for (int i = 0; i < questionIds.length; i++) {
+                quizCounts.addAnswer(score, questionIds[i], selectedOptionIds[i], correct[i]);
+            }
+        }
+    }
+
+    /**
+     * Ids of the attempts one pass streamed, ascending as the query returns them.
+     */
+    private static final class StreamedIds {
+        long[] ids = new long[64];
+        int size;
+
+        boolean isLast(long attemptId) {
+            return size > 0 && ids[size - 1] == attemptId;
+        }
+
+        void add(long attemptId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = attemptId;
+        }
+
+        boolean contains(long attemptId) {
+            return Arrays.binarySearch(ids, 0, size, attemptId) >= 0;
+        }
+    }
+
+    /**
+     * One streaming pass over a quiz; readers arriving meanwhile wait for its result.
+     * Fields other than the result are guarded by this.
+     */
+    private static final class Load {
+        final AnswerKey answerKey;
+        final CompletableFuture<ItemCounts> result = new CompletableFuture<>();
+        final List<Graded> pending = new ArrayList<>();
+        boolean finished;
+        boolean evicted;
+
+        Load(AnswerKey answerKey) {
+            this.answerKey = answerKey;
+        }
+
+        // False once the counts are published, the caller then adds to them directly
+        synchronized boolean buffer(Graded graded) {
+            if (finished || graded.answerKey() != answerKey) {
+                return false;
+            }
+            pending.add(graded);
+            return true;
+        }
+
+        synchronized void evict() {
+            evicted = true;
+        }
+    }
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate readTx;
+
+    private final Map<Long, ItemCounts> counts = new ConcurrentHashMap<>();
+    private final Map<Long, Load> loading = new ConcurrentHashMap<>();
+
+    public ItemAnalysisService(DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${quiz.analytics.fetch-size:1000}") int fetchSize) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(fetchSize);
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /**
+     * Adds a graded attempt to the cached counts once the current transaction commits.
+     * Quizzes that were never analysed are skipped, their first read streams everything.
+     * An attempt whose commit callback runs only after a whole pass that streamed it has finished
+     * would be counted twice; the callback follows the commit immediately, so that needs a pass of no time.
+     *
+     * @param selectedOptionIds 0 where the answer has no selected option
+     */
+    public void recordAfterCommit(AnswerKey answerKey, long attemptId, int score,
+                                  long[] questionIds, long[] selectedOptionIds, boolean[] correct) {
+        Graded graded = new Graded(answerKey, attemptId, score, questionIds, selectedOptionIds, correct);
+        Runnable record = () -> {
+            Load pass = loading.get(answerKey.quizId());
+            if (pass != null && pass.buffer(graded)) {
+                return;
+            }
+            ItemCounts quizCounts = counts.get(answerKey.quizId());
+            if (quizCounts != null && quizCounts.answerKey == answerKey) {
+                graded.addTo(quizCounts);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+
+    public ItemAnalysisResponse getItemAnalysis(Long quizId) {
+        // Resolved outside the read transaction, readers waiting for a pass hold no connection
+        AnswerKey answerKey = answerKeyCache.get(quizId);
+        ItemCounts quizCounts = counts.get(quizId);
+        if (quizCounts == null || quizCounts.answerKey != answerKey) {
+            quizCounts = load(answerKey);
+        }
+        ItemCounts analysed = quizCounts;
+        return readTx.execute(status -> toResponse(quizRepository.findFullById(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz", quizId)), analysed));
+    }
+
+    /**
+     * Drops the cached counts so the next read streams them again; a pass still running is not published.
+     */
+    public void evict(Long quizId) {
+        Load pass = loading.get(quizId);
+        if (pass != null) {
+            pass.evict();
+        }
+        counts.remove(quizId);
+    }
+
+    private ItemCounts load(AnswerKey answerKey) {
+        Long quizId = answerKey.quizId();
+        Load pass = new Load(answerKey);
+        Load inFlight = loading.putIfAbsent(quizId, pass);
+        if (inFlight != null) {
+            return await(inFlight.result);
+        }
+        try {
+            ItemCounts quizCounts = stream(pass);
+            pass.result.complete(quizCounts);
+            return quizCounts;
+        } catch (RuntimeException e) {
+            pass.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(quizId, pass);
+        }
+    }
+
+    private ItemCounts stream(Load pass) {
+        ItemCounts quizCounts = new ItemCounts(pass.answerKey);
+        StreamedIds streamed = new StreamedIds();
+        // Read-only transaction of its own, which the PostgreSQL driver needs to use a cursor
+        readTx.executeWithoutResult(status -> streamingJdbc.query(STREAM_ANSWERS, rs -> {
+            long attemptId = rs.getLong("attempt_id");
+            int score = rs.getInt("score");
+            if (!streamed.isLast(attemptId)) {
+                streamed.add(attemptId);
+                quizCounts.addAttempt(score);
+            }
+            long questionId = rs.getLong("question_id");
+            if (!rs.wasNull()) {
+                quizCounts.addAnswer(score, questionId, rs.getLong("selected_option_id"), rs.getBoolean("is_correct"));
+            }
+        }, pass.answerKey.quizId()));
+
+        // Attempts committed after the query's snapshot were not streamed and are added here
+        synchronized (pass) {
+            for (Graded graded : pass.pending) {
+                if (!streamed.contains(graded.attemptId())) {
+                    graded.addTo(quizCounts);
+                }
+            }
+            pass.pending.clear();
+            if (!pass.evicted) {
+                counts.put(pass.answerKey.quizId(), quizCounts);
+            }
+            pass.finished = true;
+        }
+        return quizCounts;
+    }
+
+    private static ItemCounts await(CompletableFuture<ItemCounts> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ItemAnalysisResponse toResponse(Quiz quiz, ItemCounts quizCounts) {
+        AnswerKey answerKey = quizCounts.answerKey;
+        long attempts = quizCounts.attempts.sum();
+        long scoreSum = quizCounts.scoreSum.sum();
+        double mean = attempts == 0 ? 0.0 : (double) scoreSum / attempts;
+        double stdDev = attempts == 0 ? 0.0
+                : Math.sqrt(Math.max(0.0, (double) quizCounts.scoreSquareSum.sum() / attempts - mean * mean));
+
+        List<QuestionItemAnalysis> questions = new ArrayList<>();
+        for (Question question : quiz.getQuestions().stream().sorted(Comparator.comparing(Question::getId)).toList()) {
+            int questionIndex = answerKey.questionIndex(question.getId());
+            if (questionIndex < 0) {
+                continue;
+            }
+            long correct = quizCounts.correct.get(questionIndex);
+            Double difficulty = attempts == 0 ? null : (double) correct / attempts;
+
+            // Point-biserial: (M1 - M0) / s * sqrt(p * q), undefined when everyone or no one got it right
+            Double discrimination = null;
+            if (difficulty != null && correct > 0 && correct < attempts && stdDev > 0) {
+                double correctMean = (double) quizCounts.correctScoreSum.get(questionIndex) / correct;
+                double incorrectMean = (double) (scoreSum - quizCounts.correctScoreSum.get(questionIndex)) / (attempts - correct);
+                discrimination = (correctMean - incorrectMean) / stdDev * Math.sqrt(difficulty * (1 - difficulty));
+            }
+
+            List<OptionItemAnalysis> options = new ArrayList<>();
+            for (Option option : question.getOptions()) {
+                int optionIndex = answerKey.optionIndex(option.getId());
+                if (optionIndex < 0) {
+                    continue; // short answer options are accepted answers, never chosen
+                }
+                long chosen = quizCounts.chosen.get(optionIndex);
+                options.add(new OptionItemAnalysis(option.getId(), option.getOptionText(), option.getIsCorrect(),
+                        chosen, attempts == 0 ? null : (double) chosen / attempts));
+            }
+
+            questions.add(new QuestionItemAnalysis(
+                    question.getId(),
+                    question.getQuestionText(),
+                    question.getType().name(),
+                    quizCounts.answered.get(questionIndex),
+                    correct,
+                    difficulty,
+                    discrimination,
+                    options
+            ));
+        }
+        return new ItemAnalysisResponse(quiz.getId(), quiz.getTitle(), attempts, questions);
+    }
+}
@@ -0,0 +1,224 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.LeaderboardEntry;
+import com.quizforge.dto.LeaderboardResponse;
+import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.repository.QuizAttemptRepository;
+import com.quizforge.repository.QuizRepository;
+import com.quizforge.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live per-quiz leaderboards: the best evaluated attempts by score, ties going to the faster attempt.
+ * Each quiz keeps only its top entries in a concurrent skip list, so concurrent evaluations insert
+ * without locking and reads never touch quiz_attempts. Boards are seeded with one windowed
+ * query at startup and rebuilt per quiz when its scores change underneath them.
+ */
+@Service
+public class LeaderboardService {
+
+    private record Entry(long attemptId, long userId, int score, Integer totalPoints,
+                         Long timeTakenMinutes, LocalDateTime submittedAt) {}
+
+    // Higher score first, then less time taken, then the earlier attempt; distinct attempts never compare equal
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::timeTakenMinutes, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(Entry::attemptId);
+
+    /**
+     * Bounded top-K of one quiz. The size is tracked separately because
+     * ConcurrentSkipListSet.size() walks the whole list.
+     */
+    private static final class Board {
+        final ConcurrentSkipListSet<Entry> top = new ConcurrentSkipListSet<>(RANKING);
+        final AtomicInteger size = new AtomicInteger();
+        final int capacity;
+
+        Board(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(Entry entry) {
+            if (size.get() >= capacity) {
+                Entry weakest = top.isEmpty() ? null : top.last();
+                if (weakest != null && RANKING.compare(entry, weakest) > 0) {
+                    return; // would be trimmed straight away
+                }
+            }
+            if (!top.add(entry)) {
+                return; // already ranked, e.g. seen by the seed query and after commit
+            }
+            size.incrementAndGet();
+            // Reserve a removal before polling, so racing writers never trim below capacity
+            for (int current = size.get(); current > capacity; current = size.get()) {
+                if (size.compareAndSet(current, current - 1)) {
+                    top.pollLast();
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final int capacity;
+
+    private final Map<Long, Board> boards = new ConcurrentHashMap<>();
+    // Boards being rebuilt, which also receive the attempts evaluated while their query runs
+    private final Map<Long, Board> rebuilding = new ConcurrentHashMap<>();
+    // Not synchronized: a rebuild blocks on JDBC, which would pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public LeaderboardService(@Value("${quiz.leaderboard.capacity:100}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Loads the top attempts of every quiz. Attempts evaluated meanwhile are offered
+     * as usual; an attempt seen both ways is ranked once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<QuizAttemptRepository.RankedAttempt> rows = attemptRepository.findAllTopAttempts(capacity);
+        for (QuizAttemptRepository.RankedAttempt row : rows) {
+            board(row.getQuizId()).offer(toEntry(row));
+        }
+        System.out.println("Leaderboards seeded with " + rows.size() + " attempts");
+    }
+
+    /**
+     * Ranks an evaluated attempt once the current transaction has committed it.
+     */
+    public void recordAfterCommit(Long quizId, Long attemptId, Long userId, int score, Integer totalPoints,
+                                  Long timeTakenMinutes, LocalDateTime submittedAt) {
+        Entry entry = new Entry(attemptId, userId, score, totalPoints, timeTakenMinutes, submittedAt);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(quizId, entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offer(quizId, entry);
+            }
+        });
+    }
+
+    /**
+     * Reloads the board of a quiz from its attempts, e.g. after a regrade changed their scores.
+     * The new board is listed in rebuilding before the query runs, so an attempt committed too late
+     * for the query still reaches it through {@link #offer}.
+     */
+    public void rebuild(Long quizId) {
+        rebuildLock.lock();
+        try {
+            Board fresh = new Board(capacity);
+            rebuilding.put(quizId, fresh);
+            try {
+                for (QuizAttemptRepository.RankedAttempt row : attemptRepository.findTopAttempts(quizId, capacity)) {
+                    fresh.offer(toEntry(row));
+                }
+                boards.put(quizId, fresh);
+            } finally {
+                rebuilding.remove(quizId, fresh);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Forgets the board of a deleted quiz.
+     */
+    public void evict(Long quizId) {
+        boards.remove(quizId);
+    }
+
+    /**
+     * @param viewerId the candidate asking, who only sees who is behind their own entries;
+     *                 null for admins, who see every candidate
+     */
+    public LeaderboardResponse getLeaderboard(Long quizId, Integer limit, Long viewerId) {
+        if (limit != null && (limit < 1 || limit > capacity)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + capacity);
+        }
+        if (!quizRepository.existsById(quizId)) {
+            throw new ResourceNotFoundException("Quiz", quizId);
+        }
+        int size = limit != null ? limit : Math.min(10, capacity);
+        Board board = boards.get(quizId);
+        List<Entry> top = new ArrayList<>(size);
+        if (board != null) {
+            for (Entry entry : board.top) {
+                if (top.size() == size) {
+                    break;
+                }
+                top.add(entry);
+            }
+        }
+
+        List<Long> visible = top.stream()
+                .map(Entry::userId)
+                .filter(userId -> viewerId == null || viewerId.equals(userId))
+                .distinct()
+                .toList();
+        Map<Long, String> names = new HashMap<>();
+        if (!visible.isEmpty()) {
+            for (UserRepository.UserName user : userRepository.findNamesByIdIn(visible)) {
+                names.put(user.getId(), user.getName());
+            }
+        }
+        List<LeaderboardEntry> entries = new ArrayList<>(top.size());
+        for (Entry entry : top) {
+            // Other candidates' entries keep their rank and score but not who they are
+            boolean shown = viewerId == null || viewerId.equals(entry.userId());
+            entries.add(new LeaderboardEntry(entries.size() + 1,
+                    shown ? entry.attemptId() : null, shown ? entry.userId() : null,
+                    shown ? names.get(entry.userId()) : null, entry.score(), entry.totalPoints(),
+                    entry.timeTakenMinutes(), entry.submittedAt()));
+        }
+        return new LeaderboardResponse(quizId, entries);
+    }
+
+    private void offer(Long quizId, Entry entry) {
+        // Rebuilding board first: once it is no longer listed there, it is already the published one
+        Board rebuilt = rebuilding.get(quizId);
+        if (rebuilt != null) {
+            rebuilt.offer(entry);
+        }
+        board(quizId).offer(entry);
+    }
+
+    private Board board(Long quizId) {
+        return boards.computeIfAbsent(quizId, id -> new Board(capacity));
+    }
+
+    private static Entry toEntry(QuizAttemptRepository.RankedAttempt row) {
+        return new Entry(row.getId(), row.getUserId(), row.getScore(), row.getTotalPoints(),
+                row.getTimeTakenMinutes(), row.getSubmittedAt());
+    }
+}
@@ -0,0 +1,52 @@
+package com.quizforge.service;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.Locale;
+
+/**
+ * Shared argument handling for keyset-paginated listings.
+ */
+final class Paging {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private Paging() {
+    }
+
+    /**
+     * Row limit for a page query: one extra row to detect whether a next page exists.
+     */
+    static Limit limit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    /**
+     * The requested page size, or the default page size when none was given.
+     */
+    static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * LIKE pattern matching the search anywhere. Wildcards (% and _) and backslashes in the
+     * search are escaped with a backslash, so the query must declare {@code escape '\'}.
+     */
+    static String containsPattern(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String escaped = search.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,114 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.LoginMetricsResponse;
+import com.quizforge.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hash checks on a fixed pool sized to the CPU, so a login stampede
+ * cannot take every request thread with it. Callers get a future and no thread waits for
+ * the check. Checks wait in a bounded queue; once it is full, logins are turned away with
+ * 503 and Retry-After instead of piling up.
+ * A matching hash from a lower work factor is re-encoded on the same worker.
+ */
+@Component
+public class PasswordVerifier {
+
+    /**
+     * @param upgradedHash new hash to store when the old one used a lower work factor, else null
+     */
+    public record Result(boolean matches, String upgradedHash) {}
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final int strength;
+    private final int queueCapacity;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor workers;
+
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+    private final LongAccumulator maxVerifyNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordVerifier(@Value("${auth.bcrypt.strength:10}") int strength,
+                            @Value("${auth.bcrypt.workers:0}") int workerCount,
+                            @Value("${auth.bcrypt.queue-capacity:200}") int queueCapacity,
+                            @Value("${auth.bcrypt.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // Hashing is pure CPU, more threads than cores only adds contention
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-verifier-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.workers.prestartAllCoreThreads();
+    }
+
+    /**
+     * @return future completed on a verifier worker
+     * @throws ServiceUnavailableException if the queue is full
+     */
+    public CompletableFuture<Result> verify(String rawPassword, String encodedPassword) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                waitNanos.add(startedAt - queuedAt);
+                boolean matches = passwordEncoder.matches(rawPassword, encodedPassword);
+                String upgraded = null;
+                if (matches && passwordEncoder.upgradeEncoding(encodedPassword)) {
+                    upgraded = passwordEncoder.encode(rawPassword);
+                    rehashed.increment();
+                }
+                long took = System.nanoTime() - startedAt;
+                verifyNanos.add(took);
+                maxVerifyNanos.accumulate(took);
+                verified.increment();
+                return new Result(matches, upgraded);
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many logins in progress, please retry shortly", retryAfterSeconds);
+        }
+    }
+
+    public LoginMetricsResponse metrics() {
+        long count = verified.sum();
+        return new LoginMetricsResponse(
+                strength,
+                workers.getCorePoolSize(),
+                queueCapacity,
+                workers.getQueue().size(),
+                workers.getActiveCount(),
+                count,
+                rejected.sum(),
+                rehashed.sum(),
+                count == 0 ? 0.0 : waitNanos.sum() / 1_000_000.0 / count,
+                count == 0 ? 0.0 : verifyNanos.sum() / 1_000_000.0 / count,
+                maxVerifyNanos.get() / 1_000_000.0
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,149 @@
+package com.quizforge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizforge.dto.QuizResponse;
+import com.quizforge.dto.QuizSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of pre-serialized quiz views.
+ * Each quiz is built at most once per view until it is evicted or invalidated,
+ * concurrent misses for the same quiz wait on the single in-flight build.
+ */
+@Component
+public class QuizSnapshotCache {
+
+    public enum View {
+        CANDIDATE, // correct answers stripped
+        ADMIN      // full answer key
+    }
+
+    private record Key(long quizId, View view) {}
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTx;
+
+    private final int maxEntries;
+
+    // Access-ordered so the eldest entry is the least recently served one; guarded by this
+    private final LinkedHashMap<Key, QuizSnapshot> entries;
+
+    private final Map<Key, CompletableFuture<QuizSnapshot>> loading = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so builds that raced with an update are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public QuizSnapshotCache(PlatformTransactionManager transactionManager,
+                             @Value("${quiz.snapshot-cache.max-entries:500}") int maxEntries) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, QuizSnapshot> eldest) {
+                return size() > QuizSnapshotCache.this.maxEntries;
+            }
+        };
+    }
+
+    public QuizSnapshot get(Long quizId, View view, Supplier<QuizResponse> loader) {
+        Key key = new Key(quizId, view);
+        QuizSnapshot cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<QuizSnapshot> build = new CompletableFuture<>();
+        CompletableFuture<QuizSnapshot> inFlight = loading.putIfAbsent(key, build);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            long startGeneration = generation.get();
+            // Only a miss opens a transaction, hits never touch the connection pool
+            QuizSnapshot snapshot = new QuizSnapshot(quizId, readOnlyTx.execute(status -> serialize(loader.get())));
+            synchronized (this) {
+                if (generation.get() == startGeneration) {
+                    entries.put(key, snapshot);
+                }
+            }
+            build.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, build);
+        }
+    }
+
+    /**
+     * Drops both views of a quiz. Inside a transaction the views are dropped again
+     * after commit, so a read that slipped in before the commit cannot leave stale data behind.
+     */
+    public void evict(Long quizId) {
+        remove(quizId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(quizId);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized QuizSnapshot lookup(Key key) {
+        return entries.get(key);
+    }
+
+    private void remove(Long quizId) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            for (View view : View.values()) {
+                entries.remove(new Key(quizId, view));
+            }
+        }
+    }
+
+    private String serialize(QuizResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize quiz " + response.id(), e);
+        }
+    }
+
+    private static QuizSnapshot await(CompletableFuture<QuizSnapshot> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
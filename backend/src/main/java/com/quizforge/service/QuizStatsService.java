@@ -0,0 +1,641 @@
+package com.quizforge.service;
+
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.model.QuizScoreCount;
+import com.quizforge.model.QuizStats;
+import com.quizforge.repository.QuizAttemptRepository;
+import com.quizforge.repository.QuizScoreCountRepository;
+import com.quizforge.repository.QuizStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-quiz running score statistics, so analytics never scan quiz_attempts.
+ * Evaluated attempts are counted after commit into striped LongAdders, which never
+ * contend however many submissions run in parallel, and into an exact {@link ScoreHistogram}
+ * that answers percentile ranks. Counters are added to the quiz_stats row and the per-score
+ * quiz_score_counts rows on a schedule and can be rebuilt from quiz_attempts at any time.
+ * Every quiz has a row: it is written when the quiz is created, and quizzes older than the
+ * table are backfilled at startup. A rebuild needs a transaction of its own, so it never runs
+ * inside a caller's transaction, where waiting for a second connection could drain the pool.
+ * Attempts counted after commit while a rebuild runs are held back until it publishes its counters,
+ * then added unless its snapshot already counted them.
+ */
+@Service
+public class QuizStatsService {
+
+    /**
+     * Point-in-time statistics of one quiz.
+     */
+    public record Totals(long attempts, long scoreSum, long scoreSquareSum,
+                         Integer minScore, Integer maxScore, long exceeded, long passed) {
+
+        public static final Totals EMPTY = new Totals(0, 0, 0, null, null, 0, 0);
+
+        public double average() {
+            return attempts == 0 ? 0.0 : (double) scoreSum / attempts;
+        }
+
+        public double stdDev() {
+            if (attempts == 0) {
+                return 0.0;
+            }
+            double mean = average();
+            return Math.sqrt(Math.max(0.0, (double) scoreSquareSum / attempts - mean * mean));
+        }
+
+        public double passRate() {
+            return attempts == 0 ? 0.0 : (double) passed / attempts;
+        }
+
+        Totals plus(long[] counts, long min, long max) {
+            return new Totals(attempts + counts[0], scoreSum + counts[1], scoreSquareSum + counts[2],
+                    lower(minScore, min), upper(maxScore, max), exceeded + counts[3], passed + counts[4]);
+        }
+
+        Totals minus(long[] counts) {
+            return new Totals(attempts - counts[0], scoreSum - counts[1], scoreSquareSum - counts[2],
+                    minScore, maxScore, exceeded - counts[3], passed - counts[4]);
+        }
+
+        // Accumulator identities (Long.MAX_VALUE / MIN_VALUE) mean nothing was recorded
+        private static Integer lower(Integer current, long candidate) {
+            if (candidate == Long.MAX_VALUE) {
+                return current;
+            }
+            return current == null ? Integer.valueOf((int) candidate) : Integer.valueOf(Math.min(current, (int) candidate));
+        }
+
+        private static Integer upper(Integer current, long candidate) {
+            if (candidate == Long.MIN_VALUE) {
+                return current;
+            }
+            return current == null ? Integer.valueOf((int) candidate) : Integer.valueOf(Math.max(current, (int) candidate));
+        }
+    }
+
+    /**
+     * Counters of one quiz. Recording is lock-free; loading and flushing hold the lock.
+     * A ReentrantLock rather than a monitor, because both run queries while holding it and
+     * a virtual thread blocked inside synchronized would pin its carrier thread.
+     */
+    private static final class Counters {
+        final ReentrantLock lock = new ReentrantLock();
+        final LongAdder attempts = new LongAdder();
+        final LongAdder scoreSum = new LongAdder();
+        final LongAdder scoreSquareSum = new LongAdder();
+        final LongAdder exceeded = new LongAdder();
+        final LongAdder passed = new LongAdder();
+        final LongAccumulator minScore = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final LongAccumulator maxScore = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        final ScoreHistogram histogram = new ScoreHistogram();
+
+        // Stored totals minus what this instance has flushed since, null until loaded
+        Totals base;
+        // Stored score counts minus what this instance has flushed since, with running totals for rank queries
+        long[] baseCounts = new long[0];
+        long[] baseBelow = {0};
+        // Adder sums and histogram counts already added to the stored rows
+        long[] flushed = new long[5];
+        long[] flushedCounts = new long[0];
+
+        void load(Totals stored, long[] storedCounts) {
+            base = stored.minus(flushed);
+            baseCounts = ScoreHistogram.subtract(storedCounts, flushedCounts);
+            baseBelow = new long[baseCounts.length + 1];
+            for (int i = 0; i < baseCounts.length; i++) {
+                baseBelow[i + 1] = baseBelow[i] + baseCounts[i];
+            }
+        }
+
+        void record(int score, boolean exceededLimit, boolean passedAttempt) {
+            attempts.increment();
+            scoreSum.add(score);
+            scoreSquareSum.add((long) score * score);
+            if (exceededLimit) {
+                exceeded.increment();
+            }
+            if (passedAttempt) {
+                passed.increment();
+            }
+            minScore.accumulate(score);
+            maxScore.accumulate(score);
+            histogram.add(score);
+        }
+
+        long countBelow(int score) {
+            int stored = Math.max(0, Math.min(score, baseCounts.length));
+            return baseBelow[stored] + histogram.countBelow(score);
+        }
+
+        long[] scoreCounts() {
+            return ScoreHistogram.merge(baseCounts, histogram.toArray());
+        }
+
+        long[] sums() {
+            return new long[]{attempts.sum(), scoreSum.sum(), scoreSquareSum.sum(), exceeded.sum(), passed.sum()};
+        }
+
+        Totals totals() {
+            return base.plus(sums(), minScore.get(), maxScore.get());
+        }
+    }
+
+    /**
+     * An evaluated attempt as counted after commit.
+     */
+    private record Recorded(Long quizId, Long attemptId, int score, boolean exceededLimit, boolean passedAttempt) {}
+
+    /**
+     * One running rebuild; attempts counted meanwhile wait in pending until its counters are published.
+     * Guarded by this.
+     */
+    private static final class Rebuild {
+        final List<Recorded> pending = new ArrayList<>();
+        boolean finished;
+
+        // False once the counters are published, the caller then counts into them directly
+        synchronized boolean buffer(Recorded recorded) {
+            if (finished) {
+                return false;
+            }
+            pending.add(recorded);
+            return true;
+        }
+
+        synchronized List<Long> attemptIds() {
+            return pending.stream().map(Recorded::attemptId).toList();
+        }
+    }
+
+    @Autowired
+    private QuizStatsRepository statsRepository;
+
+    @Autowired
+    private QuizScoreCountRepository scoreCountRepository;
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    private final TransactionTemplate tx;
+    private final TransactionTemplate rebuildTx;
+    private final int passPercentage;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<Long, Rebuild> rebuilding = new ConcurrentHashMap<>();
+    private volatile Rebuild rebuildingAll;
+
+    public QuizStatsService(PlatformTransactionManager transactionManager,
+                            @Value("${quiz.analytics.pass-percentage:60}") int passPercentage) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // The aggregates and the check of the attempts buffered meanwhile must read one snapshot
+        this.rebuildTx = new TransactionTemplate(transactionManager);
+        this.rebuildTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.passPercentage = passPercentage;
+    }
+
+    /**
+     * Counts an evaluated attempt once the current transaction has committed it.
+     * An attempt whose commit callback runs only after a whole rebuild that counted it has finished
+     * would be counted twice; the callback follows the commit immediately, so that needs a rebuild of no time.
+     */
+    public void recordAfterCommit(Long quizId, Long attemptId, int score, Integer totalPoints, boolean exceededLimit) {
+        boolean passedAttempt = totalPoints != null && score * 100L >= (long) passPercentage * totalPoints;
+        Recorded recorded = new Recorded(quizId, attemptId, score, exceededLimit, passedAttempt);
+        Runnable record = () -> {
+            Rebuild rebuild = rebuilding.get(quizId);
+            if (rebuild != null && rebuild.buffer(recorded)) {
+                return;
+            }
+            Rebuild all = rebuildingAll;
+            if (all != null && all.buffer(recorded)) {
+                return;
+            }
+            count(recorded);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+
+    /**
+     * Stores empty statistics for a quiz created in the current transaction.
+     */
+    public void initialize(Long quizId) {
+        statsRepository.save(toEntity(quizId, Totals.EMPTY));
+    }
+
+    /**
+     * Deletes the statistics of a quiz deleted in the current transaction and drops its counters.
+     */
+    public void delete(Long quizId) {
+        statsRepository.deleteById(quizId);
+        scoreCountRepository.deleteByQuizIdIn(List.of(quizId));
+        counters.remove(quizId);
+    }
+
+    /**
+     * Stores statistics for every quiz that has no quiz_stats row yet, from two grouped queries.
+     * Counters recorded for those quizzes before the backfill are dropped, the attempts table already holds them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Set<Long> missing = new HashSet<>(statsRepository.findQuizIdsWithoutStats());
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            tx.executeWithoutResult(status -> storeComputed(missing));
+            missing.forEach(counters::remove);
+            System.out.println("Backfilled statistics of " + missing.size() + " quizzes");
+        } catch (RuntimeException e) {
+            // Rows written concurrently by a rebuild; the remaining quizzes are rebuilt on first use outside a transaction
+            System.err.println("Backfilling quiz statistics failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Statistics of the quiz, or empty statistics while they still have to be rebuilt.
+     */
+    public Totals get(Long quizId) {
+        Counters quizCounters = loaded(quizId);
+        if (quizCounters == null) {
+            return Totals.EMPTY;
+        }
+        quizCounters.lock.lock();
+        try {
+            return quizCounters.totals();
+        } finally {
+            quizCounters.lock.unlock();
+        }
+    }
+
+    /**
+     * Percentage of evaluated attempts of the quiz that scored lower than the given score,
+     * or null while the quiz has none or its statistics still have to be rebuilt.
+     */
+    public Double percentile(Long quizId, int score) {
+        Counters quizCounters = loaded(quizId);
+        if (quizCounters == null) {
+            return null;
+        }
+        long attempts;
+        long below;
+        quizCounters.lock.lock();
+        try {
+            attempts = quizCounters.totals().attempts();
+            below = quizCounters.countBelow(score);
+        } finally {
+            quizCounters.lock.unlock();
+        }
+        return attempts == 0 ? null : Math.min(100.0, 100.0 * below / attempts);
+    }
+
+    /**
+     * Number of evaluated attempts per score, index = score.
+     */
+    public long[] scoreCounts(Long quizId) {
+        Counters quizCounters = loaded(quizId);
+        if (quizCounters == null) {
+            return new long[0];
+        }
+        quizCounters.lock.lock();
+        try {
+            return quizCounters.scoreCounts();
+        } finally {
+            quizCounters.lock.unlock();
+        }
+    }
+
+    /**
+     * Statistics of every quiz that has any, loading unknown quizzes with one query.
+     */
+    public Map<Long, Totals> getAll() {
+        Map<Long, QuizStats> stored = new HashMap<>();
+        for (QuizStats stats : statsRepository.findAll()) {
+            stored.put(stats.getQuizId(), stats);
+        }
+        Map<Long, Totals> result = new HashMap<>();
+        Map<Long, long[]> storedCounts = null; // read once, only if some quiz is not loaded yet
+        for (Map.Entry<Long, QuizStats> entry : stored.entrySet()) {
+            Counters quizCounters = counters.computeIfAbsent(entry.getKey(), id -> new Counters());
+            quizCounters.lock.lock();
+            try {
+                if (quizCounters.base == null) {
+                    if (storedCounts == null) {
+                        storedCounts = allScoreCounts();
+                    }
+                    quizCounters.load(toTotals(entry.getValue()), storedCounts.getOrDefault(entry.getKey(), new long[0]));
+                }
+                result.put(entry.getKey(), quizCounters.totals());
+            } finally {
+                quizCounters.lock.unlock();
+            }
+        }
+        // Quizzes counted in memory but never stored yet
+        for (Long quizId : counters.keySet()) {
+            if (!result.containsKey(quizId)) {
+                result.put(quizId, get(quizId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recomputes the statistics of a quiz from its evaluated attempts, e.g. after a regrade.
+     */
+    public Totals rebuild(Long quizId) {
+        Counters current = counters.computeIfAbsent(quizId, id -> new Counters());
+        current.lock.lock();
+        try {
+            return rebuildCounters(quizId).totals();
+        } finally {
+            current.lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds every quiz from two grouped queries; quizzes without evaluated attempts get empty statistics.
+     */
+    public void rebuildAll() {
+        Rebuild rebuild = new Rebuild();
+        rebuildingAll = rebuild;
+        int[] rebuilt = new int[1];
+        Set<Long> counted = new HashSet<>();
+        try {
+            rebuildTx.executeWithoutResult(status -> {
+                statsRepository.deleteAllInBatch();
+                scoreCountRepository.deleteAllInBatch();
+                Set<Long> quizIds = new HashSet<>(statsRepository.findQuizIdsWithoutStats());
+                storeComputed(quizIds);
+                rebuilt[0] = quizIds.size();
+                counted.addAll(countedByRebuild(rebuild));
+            });
+            publish(rebuild, counted, counters::clear);
+        } catch (RuntimeException e) {
+            publish(rebuild, Set.of(), () -> {});
+            throw e;
+        } finally {
+            if (rebuildingAll == rebuild) {
+                rebuildingAll = null;
+            }
+        }
+        System.out.println("Rebuilt statistics of " + rebuilt[0] + " quizzes");
+    }
+
+    // Caller runs a transaction; the grouped queries cover every quiz, only the given ones are stored
+    private void storeComputed(Set<Long> quizIds) {
+        if (quizIds.isEmpty()) {
+            return;
+        }
+        scoreCountRepository.deleteByQuizIdIn(quizIds);
+        Map<Long, ScoreHistogram> histograms = new HashMap<>();
+        for (QuizAttemptRepository.ScoreCount row : attemptRepository.findAllScoreCounts()) {
+            if (quizIds.contains(row.getQuizId())) {
+                histograms.computeIfAbsent(row.getQuizId(), id -> new ScoreHistogram())
+                        .add(row.getScore(), row.getAttempts());
+            }
+        }
+        Set<Long> empty = new HashSet<>(quizIds);
+        for (QuizAttemptRepository.ScoreTotals row : attemptRepository.findAllScoreTotals(passPercentage)) {
+            if (empty.remove(row.getQuizId())) {
+                statsRepository.save(toEntity(row.getQuizId(), toTotals(row)));
+                addScoreCounts(row.getQuizId(),
+                        histograms.getOrDefault(row.getQuizId(), new ScoreHistogram()).toArray());
+            }
+        }
+        for (Long quizId : empty) {
+            statsRepository.save(toEntity(quizId, Totals.EMPTY));
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${quiz.stats.flush-interval-ms:5000}",
+            initialDelayString = "${quiz.stats.flush-interval-ms:5000}")
+    public void flush() {
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            try {
+                flush(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                // Deltas stay in memory and are retried on the next flush
+                System.err.println("Flushing statistics of quiz " + entry.getKey() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void flush(Long quizId, Counters quizCounters) {
+        if (counters.get(quizId) != quizCounters) {
+            return; // quiz deleted or rebuilt since the flush started
+        }
+        quizCounters.lock.lock();
+        try {
+            long[] sums = quizCounters.sums();
+            long[] counts = quizCounters.histogram.toArray();
+            long[] delta = new long[sums.length];
+            for (int i = 0; i < sums.length; i++) {
+                delta[i] = sums[i] - quizCounters.flushed[i];
+            }
+            long[] countDelta = ScoreHistogram.subtract(counts, quizCounters.flushedCounts);
+            if (delta[0] == 0 && countDelta.length == 0) {
+                return;
+            }
+            int updated = tx.execute(status -> {
+                int rows = statsRepository.addDeltas(quizId, delta[0], delta[1], delta[2], delta[3], delta[4],
+                        (int) quizCounters.minScore.get(), (int) quizCounters.maxScore.get(), LocalDateTime.now());
+                if (rows > 0) {
+                    addScoreCounts(quizId, countDelta);
+                }
+                return rows;
+            });
+            if (updated == 0) {
+                // Row deleted meanwhile, build it again from the attempts table
+                rebuildCounters(quizId);
+                return;
+            }
+            // base stays valid: the stored rows and the flushed sums and counts grow by the same delta
+            quizCounters.flushed = sums;
+            quizCounters.flushedCounts = counts;
+        } finally {
+            quizCounters.lock.unlock();
+        }
+    }
+
+    /**
+     * Counters of the quiz with the stored statistics loaded, rebuilding them when nothing is stored yet.
+     * Concurrent callers wait for a single rebuild under the quiz's lock. Inside a transaction nothing
+     * is rebuilt and null is returned; the next flush rebuilds the quiz outside of one.
+     */
+    private Counters loaded(Long quizId) {
+        while (true) {
+            Counters quizCounters = counters.computeIfAbsent(quizId, id -> new Counters());
+            quizCounters.lock.lock();
+            try {
+                if (counters.get(quizId) != quizCounters) {
+                    continue; // swapped by a rebuild while waiting for the lock
+                }
+                if (quizCounters.base != null) {
+                    return quizCounters;
+                }
+                QuizStats stored = statsRepository.findById(quizId).orElse(null);
+                if (stored != null) {
+                    quizCounters.load(toTotals(stored), toCounts(scoreCountRepository.findByQuizId(quizId)));
+                    return quizCounters;
+                }
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    return null;
+                }
+                return rebuildCounters(quizId);
+            } finally {
+                quizCounters.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Recomputes a quiz from quiz_attempts, stores it and swaps in fresh counters.
+     * Callers hold the lock of the quiz's current counters.
+     */
+    private Counters rebuildCounters(Long quizId) {
+        Rebuild rebuild = new Rebuild();
+        rebuilding.put(quizId, rebuild);
+        try {
+            return rebuildCounters(quizId, rebuild);
+        } catch (RuntimeException e) {
+            publish(rebuild, Set.of(), () -> {});
+            throw e;
+        } finally {
+            rebuilding.remove(quizId, rebuild);
+        }
+    }
+
+    private Counters rebuildCounters(Long quizId, Rebuild rebuild) {
+        // Own transaction: a caller's uncommitted attempt must not be counted here and again after its commit
+        Totals[] totals = new Totals[1];
+        long[][] counts = new long[1][];
+        Set<Long> counted = new HashSet<>();
+        rebuildTx.executeWithoutResult(status -> {
+            totals[0] = attemptRepository.findScoreTotals(quizId, passPercentage)
+                    .map(QuizStatsService::toTotals)
+                    .orElse(Totals.EMPTY);
+            ScoreHistogram histogram = new ScoreHistogram();
+            for (QuizAttemptRepository.ScoreCount row : attemptRepository.findScoreCounts(quizId)) {
+                histogram.add(row.getScore(), row.getAttempts());
+            }
+            counts[0] = histogram.toArray();
+            statsRepository.save(toEntity(quizId, totals[0]));
+            scoreCountRepository.deleteByQuizIdIn(List.of(quizId));
+            addScoreCounts(quizId, counts[0]);
+            counted.addAll(countedByRebuild(rebuild));
+        });
+        Counters fresh = new Counters();
+        fresh.load(totals[0], counts[0]);
+        publish(rebuild, counted, () -> counters.put(quizId, fresh));
+        return fresh;
+    }
+
+    /**
+     * Attempts buffered so far that the rebuild's snapshot already counted; those committed after it are not visible.
+     * Caller runs the rebuild's transaction.
+     */
+    private List<Long> countedByRebuild(Rebuild rebuild) {
+        List<Long> attemptIds = rebuild.attemptIds();
+        if (attemptIds.isEmpty()) {
+            return List.of();
+        }
+        return attemptRepository.findIdsByIdInAndStatus(attemptIds, QuizAttempt.AttemptStatus.EVALUATED);
+    }
+
+    // Swaps in the rebuilt counters, or none after a failure, then counts the buffered attempts the rebuild missed
+    private void publish(Rebuild rebuild, Set<Long> counted, Runnable swap) {
+        synchronized (rebuild) {
+            swap.run();
+            for (Recorded recorded : rebuild.pending) {
+                if (!counted.contains(recorded.attemptId())) {
+                    count(recorded);
+                }
+            }
+            rebuild.pending.clear();
+            rebuild.finished = true;
+        }
+    }
+
+    private void count(Recorded recorded) {
+        counters.computeIfAbsent(recorded.quizId(), id -> new Counters())
+                .record(recorded.score(), recorded.exceededLimit(), recorded.passedAttempt());
+    }
+
+    /**
+     * Adds counts per score to the stored rows, inserting the row of a score seen for the first time.
+     * Two instances inserting the same score at once fail one transaction on the primary key,
+     * its deltas stay in memory and are retried on the next flush.
+     */
+    private void addScoreCounts(Long quizId, long[] counts) {
+        for (int score = 0; score < counts.length; score++) {
+            if (counts[score] != 0 && scoreCountRepository.addAttempts(quizId, score, counts[score]) == 0) {
+                scoreCountRepository.insert(quizId, score, counts[score]);
+            }
+        }
+    }
+
+    private Map<Long, long[]> allScoreCounts() {
+        Map<Long, ScoreHistogram> histograms = new HashMap<>();
+        for (QuizScoreCount row : scoreCountRepository.findAll()) {
+            histograms.computeIfAbsent(row.getQuizId(), id -> new ScoreHistogram()).add(row.getScore(), row.getAttempts());
+        }
+        Map<Long, long[]> counts = new HashMap<>();
+        histograms.forEach((quizId, histogram) -> counts.put(quizId, histogram.toArray()));
+        return counts;
+    }
+
+    private static long[] toCounts(List<QuizScoreCount> rows) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        rows.forEach(row -> histogram.add(row.getScore(), row.getAttempts()));
+        return histogram.toArray();
+    }
+
+    private static Totals toTotals(QuizStats stats) {
+        return new Totals(stats.getAttemptCount(), stats.getScoreSum(), stats.getScoreSquareSum(),
+                stats.getMinScore(), stats.getMaxScore(), stats.getExceededCount(), stats.getPassedCount());
+    }
+
+    private static Totals toTotals(QuizAttemptRepository.ScoreTotals row) {
+        return new Totals(row.getAttemptCount(), row.getScoreSum(), row.getScoreSquareSum(),
+                row.getMinScore(), row.getMaxScore(), row.getExceededCount(), row.getPassedCount());
+    }
+
+    private static QuizStats toEntity(Long quizId, Totals totals) {
+        return new QuizStats(quizId, totals.attempts(), totals.scoreSum(), totals.scoreSquareSum(),
+                totals.minScore(), totals.maxScore(), totals.exceeded(), totals.passed(), LocalDateTime.now());
+    }
+}
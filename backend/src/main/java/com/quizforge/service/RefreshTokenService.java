@@ -0,0 +1,164 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.LoginResponse;
+import com.quizforge.exception.UnauthorizedException;
+import com.quizforge.model.RefreshToken;
+import com.quizforge.model.User;
+import com.quizforge.repository.RefreshTokenRepository;
+import com.quizforge.repository.UserRepository;
+import com.quizforge.security.AuthenticatedUser;
+import com.quizforge.security.JwtUtil;
+import com.quizforge.security.TokenRevocationList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues access tokens together with rotating refresh tokens. A refresh only looks up the
+ * token hash and the user, it never runs the password encoder. Each refresh token works once;
+ * presenting one that was already rotated means it leaked, so the whole family is revoked,
+ * including the access tokens issued with it.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final long refreshExpiration;
+    private final TransactionTemplate tx;
+
+    public RefreshTokenService(PlatformTransactionManager transactionManager,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshExpiration) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    /**
+     * Starts a new session for a user whose credentials were just checked.
+     */
+    @Transactional
+    public LoginResponse issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    public LoginResponse refresh(String presented) {
+        LocalDateTime now = LocalDateTime.now();
+        // Reuse is handled without throwing, so the family revocation commits before the 401
+        LoginResponse rotated = tx.execute(status -> {
+            RefreshToken token = refreshTokenRepository.findByTokenHash(hash(presented))
+                    .filter(t -> t.getExpiresAt().isAfter(now))
+                    .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+            // Conditional update, so of two concurrent refreshes with the same token only one rotates
+            if (token.getRevokedAt() != null || refreshTokenRepository.revoke(token.getId(), now) == 0) {
+                revokeFamily(token.getFamilyId(), now);
+                System.err.println("Revoked refresh token presented, revoked session family " + token.getFamilyId());
+                return null;
+            }
+            User user = userRepository.findById(token.getUserId())
+                    .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+            return issue(user, token.getFamilyId());
+        });
+        if (rotated == null) {
+            throw new UnauthorizedException("Invalid or expired refresh token");
+        }
+        return rotated;
+    }
+
+    /**
+     * Ends the session of the refresh token, and revokes the calling access token even when
+     * no refresh token is given.
+     */
+    @Transactional
+    public void logout(String presented, AuthenticatedUser caller) {
+        LocalDateTime now = LocalDateTime.now();
+        if (presented != null && !presented.isBlank()) {
+            refreshTokenRepository.findByTokenHash(hash(presented))
+                    .filter(t -> caller == null || t.getUserId().equals(caller.id()))
+                    .ifPresent(t -> revokeFamily(t.getFamilyId(), now));
+        }
+        if (caller != null && caller.tokenId() != null) {
+            tokenRevocationList.revoke(caller.tokenId(), toLocal(caller.tokenExpiresAtMillis()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            System.out.println("Purged " + purged + " expired refresh tokens");
+        }
+    }
+
+    private LoginResponse issue(User user, String familyId) {
+        JwtUtil.AccessToken access = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken row = new RefreshToken();
+        row.setTokenHash(hash(refreshToken));
+        row.setUserId(user.getId());
+        row.setFamilyId(familyId);
+        row.setAccessJti(access.jti());
+        row.setAccessExpiresAt(toLocal(access.expiresAt()));
+        row.setExpiresAt(now.plusNanos(refreshExpiration * 1_000_000));
+        row.setCreatedAt(now);
+        refreshTokenRepository.save(row);
+
+        return new LoginResponse(access.token(), user.getEmail(), user.getName(), user.getRole().name(),
+                refreshToken, jwtUtil.getExpirationMillis() / 1000);
+    }
+
+    private void revokeFamily(String familyId, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        for (RefreshToken member : refreshTokenRepository.findByFamilyId(familyId)) {
+            tokenRevocationList.revoke(member.getAccessJti(), member.getAccessExpiresAt());
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return toLocal(date.getTime());
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,266 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.RegradeJobResponse;
+import com.quizforge.exception.ResourceNotFoundException;
+import com.quizforge.grading.AnswerKey;
+import com.quizforge.grading.AnswerKeyCache;
+import com.quizforge.repository.QuizRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rescores the evaluated attempts of a quiz after its answer key was corrected.
+ * Answers are streamed in attempt order through a server-side cursor and only rows whose
+ * result changed are written back, as JDBC batch updates in short transactions of
+ * quiz.regrade.batch-size attempts. Memory stays flat however many attempts a quiz has.
+ */
+@Service
+public class RegradeService {
+
+    private static final String STREAM_ANSWERS =
+            "select t.id as attempt_id, t.score, t.total_points, a.id, a.question_id, " +
+            "a.selected_option_id, a.text_answer, a.is_correct, a.points_earned " +
+            "from quiz_attempts t left join answers a on a.attempt_id = t.id " +
+            "where t.quiz_id = ? and t.status = 'EVALUATED' " +
+            "order by t.id, a.id";
+
+    private static final String UPDATE_ANSWER =
+            "update answers set is_correct = ?, points_earned = ? where id = ?";
+
+    // Version bump keeps optimistic locking honest for anyone holding the attempt
+    private static final String UPDATE_ATTEMPT =
+            "update quiz_attempts set score = ?, total_points = ?, version = version + 1 " +
+            "where id = ? and status = 'EVALUATED'";
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+
+    @Autowired
+    private QuizStatsService quizStatsService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ItemAnalysisService itemAnalysisService;
+
+    private final JdbcTemplate streamingJdbc;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+    private final int batchSize;
+
+    private final AtomicLong jobIds = new AtomicLong();
+    // Latest job per quiz
+    private final Map<Long, RegradeJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public RegradeService(DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${quiz.regrade.batch-size:500}") int batchSize,
+                          @Value("${quiz.regrade.fetch-size:1000}") int fetchSize,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.executor = Executors.newThreadPerTaskExecutor(virtualThreads
+                ? Thread.ofVirtual().name("regrade-", 0).factory()
+                : Thread.ofPlatform().name("regrade-", 0).daemon().factory());
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(fetchSize);
+        // The PostgreSQL driver only uses a cursor inside a transaction
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts a regrade of the quiz against its current answer key.
+     *
+     * @throws IllegalStateException if a regrade of the quiz is already running
+     */
+    public RegradeJobResponse startRegrade(Long quizId) {
+        if (!quizRepository.existsById(quizId)) {
+            throw new ResourceNotFoundException("Quiz", quizId);
+        }
+        RegradeJob job = new RegradeJob(jobIds.incrementAndGet(), quizId);
+        RegradeJob current = jobs.merge(quizId, job, (running, next) -> running.isRunning() ? running : next);
+        if (current != job) {
+            throw new IllegalStateException("A regrade of quiz " + quizId + " is already running (job " + current.id + ")");
+        }
+        executor.execute(() -> run(job));
+        return job.toResponse();
+    }
+
+    public RegradeJobResponse getRegrade(Long quizId) {
+        RegradeJob job = jobs.get(quizId);
+        if (job == null) {
+            throw new ResourceNotFoundException("No regrade job found for quiz with id: " + quizId);
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(RegradeJob job) {
+        try {
+            // Always grade against the key as it is now committed, never a cached copy
+            answerKeyCache.evict(job.quizId);
+            AnswerKey answerKey = answerKeyCache.get(job.quizId);
+            job.totalAttempts = jdbc.queryForObject(
+                    "select count(*) from quiz_attempts where quiz_id = ? and status = 'EVALUATED'",
+                    Long.class, job.quizId);
+
+            Batch batch = new Batch(answerKey, job);
+            readTx.executeWithoutResult(status ->
+                    streamingJdbc.query(STREAM_ANSWERS, batch::accept, job.quizId));
+            batch.finish();
+
+            // Scores changed underneath the running statistics
+            quizStatsService.rebuild(job.quizId);
+            itemAnalysisService.evict(job.quizId);
+            leaderboardService.rebuild(job.quizId);
+            job.status = "COMPLETED";
+            System.out.println("Regrade of quiz " + job.quizId + " finished: " + job.changedAttempts.get()
+                    + " of " + job.processedAttempts.get() + " attempts changed");
+        } catch (RuntimeException e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            System.err.println("Regrade of quiz " + job.quizId + " failed: " + e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Groups streamed answer rows by attempt and writes every batchSize attempts.
+     */
+    private final class Batch {
+        private final AnswerKey answerKey;
+        private final RegradeJob job;
+        private final List<Object[]> answerUpdates = new ArrayList<>();
+        private final List<Object[]> attemptUpdates = new ArrayList<>();
+        private int attemptsInBatch;
+
+        private long attemptId = -1;
+        private int oldScore;
+        private int oldTotal;
+        private int newScore;
+
+        Batch(AnswerKey answerKey, RegradeJob job) {
+            this.answerKey = answerKey;
+            this.job = job;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long rowAttemptId = rs.getLong("attempt_id");
+            if (rowAttemptId != attemptId) {
+                endAttempt();
+                attemptId = rowAttemptId;
+                oldScore = rs.getInt("score");
+                oldTotal = rs.getInt("total_points");
+                newScore = 0;
+            }
+            long answerId = rs.getLong("id");
+            if (rs.wasNull()) {
+                return; // attempt without answers, only its total may change
+            }
+
+            long selectedOptionId = rs.getLong("selected_option_id");
+            Long selected = rs.wasNull() ? null : selectedOptionId;
+            int points = answerKey.pointsFor(rs.getLong("question_id"), selected, rs.getString("text_answer"));
+            Boolean correct = points == AnswerKey.UNGRADED ? null : points > 0;
+            points = Math.max(0, points);
+            newScore += points;
+            boolean storedCorrect = rs.getBoolean("is_correct");
+            Boolean stored = rs.wasNull() ? null : storedCorrect;
+            if (!Objects.equals(stored, correct) || rs.getInt("points_earned") != points) {
+                answerUpdates.add(new Object[]{correct, points, answerId});
+            }
+        }
+
+        void finish() {
+            endAttempt();
+            flush();
+        }
+
+        private void endAttempt() {
+            if (attemptId < 0) {
+                return;
+            }
+            if (newScore != oldScore || answerKey.totalPoints() != oldTotal) {
+                attemptUpdates.add(new Object[]{newScore, answerKey.totalPoints(), attemptId});
+            }
+            if (++attemptsInBatch == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!answerUpdates.isEmpty() || !attemptUpdates.isEmpty()) {
+                writeTx.executeWithoutResult(status -> {
+                    jdbc.batchUpdate(UPDATE_ANSWER, answerUpdates);
+                    jdbc.batchUpdate(UPDATE_ATTEMPT, attemptUpdates);
+                });
+                job.changedAnswers.addAndGet(answerUpdates.size());
+                job.changedAttempts.addAndGet(attemptUpdates.size());
+            }
+            job.processedAttempts.addAndGet(attemptsInBatch);
+            answerUpdates.clear();
+            attemptUpdates.clear();
+            attemptsInBatch = 0;
+        }
+    }
+
+    private static final class RegradeJob {
+        final long id;
+        final long quizId;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong processedAttempts = new AtomicLong();
+        final AtomicLong changedAttempts = new AtomicLong();
+        final AtomicLong changedAnswers = new AtomicLong();
+        volatile Long totalAttempts;
+        volatile String status = "RUNNING";
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        RegradeJob(long id, long quizId) {
+            this.id = id;
+            this.quizId = quizId;
+        }
+
+        boolean isRunning() {
+            return "RUNNING".equals(status);
+        }
+
+        RegradeJobResponse toResponse() {
+            return new RegradeJobResponse(id, quizId, status, totalAttempts, processedAttempts.get(),
+                    changedAttempts.get(), changedAnswers.get(), startedAt, finishedAt, error);
+        }
+    }
+}
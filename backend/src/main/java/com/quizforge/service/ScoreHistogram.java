@@ -0,0 +1,101 @@
+package com.quizforge.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Exact score distribution of one quiz: one counter per possible score.
+ * Scores are small bounded integers, so a fixed-bucket histogram is both exact and compact
+ * and two histograms merge by adding their buckets. Buckets are allocated lazily in chunks
+ * of 64 scores, adding is lock-free and rank queries read at most max score + 1 buckets.
+ * Scores above {@link #MAX_SCORE} are counted in the last bucket.
+ */
+final class ScoreHistogram {
+
+    static final int CHUNK_SIZE = 64;
+    static final int MAX_SCORE = CHUNK_SIZE * CHUNK_SIZE - 1;
+
+    private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(CHUNK_SIZE);
+
+    void add(int score) {
+        add(score, 1);
+    }
+
+    void add(int score, long count) {
+        int bucket = Math.max(0, Math.min(score, MAX_SCORE));
+        AtomicLongArray chunk = chunks.get(bucket / CHUNK_SIZE);
+        if (chunk == null) {
+            chunks.compareAndSet(bucket / CHUNK_SIZE, null, new AtomicLongArray(CHUNK_SIZE));
+            chunk = chunks.get(bucket / CHUNK_SIZE);
+        }
+        chunk.addAndGet(bucket % CHUNK_SIZE, count);
+    }
+
+    /**
+     * Number of recorded scores strictly below the given score.
+     */
+    long countBelow(int score) {
+        long below = 0;
+        int limit = Math.max(0, Math.min(score, MAX_SCORE + 1));
+        for (int bucket = 0; bucket < limit; bucket++) {
+            AtomicLongArray chunk = chunks.get(bucket / CHUNK_SIZE);
+            if (chunk == null) {
+                bucket += CHUNK_SIZE - 1 - bucket % CHUNK_SIZE;
+                continue;
+            }
+            below += chunk.get(bucket % CHUNK_SIZE);
+        }
+        return below;
+    }
+
+    /**
+     * Counts per score, up to the highest score recorded.
+     */
+    long[] toArray() {
+        int lastChunk = CHUNK_SIZE - 1;
+        while (lastChunk >= 0 && chunks.get(lastChunk) == null) {
+            lastChunk--;
+        }
+        long[] counts = new long[(lastChunk + 1) * CHUNK_SIZE];
+        int length = 0;
+        for (int c = 0; c <= lastChunk; c++) {
+            AtomicLongArray chunk = chunks.get(c);
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                long count = chunk.get(i);
+                if (count != 0) {
+                    counts[c * CHUNK_SIZE + i] = count;
+                    length = c * CHUNK_SIZE + i + 1;
+                }
+            }
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    static long[] merge(long[] a, long[] b) {
+        long[] merged = Arrays.copyOf(a.length >= b.length ? a : b, Math.max(a.length, b.length));
+        long[] other = a.length >= b.length ? b : a;
+        for (int i = 0; i < other.length; i++) {
+            merged[i] += other[i];
+        }
+        return merged;
+    }
+
+    /**
+     * Counts of a minus counts of b, without trailing empty scores.
+     */
+    static long[] subtract(long[] a, long[] b) {
+        long[] difference = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            difference[i] -= b[i];
+        }
+        int length = difference.length;
+        while (length > 0 && difference[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(difference, length);
+    }
+}
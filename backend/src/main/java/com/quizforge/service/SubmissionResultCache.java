@@ -0,0 +1,83 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.AttemptResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers recent submission results so client retries are answered from memory.
+ * The first request for a key runs the submission, concurrent duplicates wait for
+ * its outcome and later duplicates get the stored response until the TTL runs out.
+ * Failed submissions are forgotten, so a retry runs again.
+ */
+@Component
+public class SubmissionResultCache {
+
+    private record Entry(CompletableFuture<AttemptResponse> result, long expiresAt) {}
+
+    private final long ttlMillis;
+
+    private final Map<String, Entry> results = new ConcurrentHashMap<>();
+
+    public SubmissionResultCache(@Value("${quiz.submission.idempotency-ttl-ms:600000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Key scoped to the candidate and attempt, plus the client's idempotency key when given.
+     * An attempt can only be submitted once, so its id alone is a natural fallback key;
+     * a client reusing its idempotency key for another attempt still submits that attempt.
+     */
+    public static String key(Long candidateId, Long attemptId, String idempotencyKey) {
+        return idempotencyKey != null && !idempotencyKey.isBlank()
+                ? candidateId + "|attempt|" + attemptId + "|key|" + idempotencyKey
+                : candidateId + "|attempt|" + attemptId;
+    }
+
+    public AttemptResponse submitOnce(String key, Supplier<AttemptResponse> submission) {
+        long now = System.currentTimeMillis();
+        Entry mine = new Entry(new CompletableFuture<>(), now + ttlMillis);
+        Entry existing;
+        while ((existing = results.putIfAbsent(key, mine)) != null) {
+            if (existing.expiresAt() >= now || !existing.result().isDone()) {
+                return await(existing.result());
+            }
+            // Expired leftover the sweep has not removed yet
+            results.remove(key, existing);
+        }
+
+        try {
+            AttemptResponse response = submission.get();
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            results.remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.submission.idempotency-sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        results.values().removeIf(entry -> entry.expiresAt() < now && entry.result().isDone());
+    }
+
+    private static AttemptResponse await(CompletableFuture<AttemptResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.quizforge.service;
+
+import com.quizforge.grading.AttemptGrader;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.repository.QuizAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Grades SUBMITTED attempts in the background when quiz.submission.async is on.
+ * A fixed number of workers drain a bounded queue and grade up to
+ * quiz.submission.batch-size attempts per transaction. The workers are daemon platform
+ * threads, or virtual threads when spring.threads.virtual.enabled is set. Attempts that never made it
+ * into the queue (restart, full queue) are picked up again by a periodic sweep.
+ * When a batch fails, its attempts are graded one per transaction so one bad attempt cannot
+ * hold back the others; an attempt that fails on its own MAX_FAILURES times is parked and
+ * left SUBMITTED, the sweep skips it until the next restart.
+ */
+@Component
+public class SubmissionWorker {
+
+    private static final int MAX_FAILURES = 3;
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    @Autowired
+    private AttemptGrader attemptGrader;
+
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final BlockingQueue<Long> queue;
+    // Ids queued or being graded, so the sweep never hands the same attempt to two workers
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    // Failed attempts by number of failures graded on their own
+    private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+
+    public SubmissionWorker(PlatformTransactionManager transactionManager,
+                            @Value("${quiz.submission.async:false}") boolean enabled,
+                            @Value("${quiz.submission.workers:4}") int workerCount,
+                            @Value("${quiz.submission.batch-size:100}") int batchSize,
+                            @Value("${quiz.submission.queue-capacity:100000}") int queueCapacity,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        if (enabled) {
+            this.workers = Executors.newFixedThreadPool(workerCount, virtualThreads
+                    ? Thread.ofVirtual().name("submission-grader-", 0).factory()
+                    : Thread.ofPlatform().name("submission-grader-", 0).daemon().factory());
+            for (int i = 0; i < workerCount; i++) {
+                workers.execute(this::drain);
+            }
+        } else {
+            this.workers = null;
+        }
+    }
+
+    /**
+     * Queues the attempt once the current transaction has committed its SUBMITTED status.
+     */
+    public void enqueueAfterCommit(Long attemptId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(attemptId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(attemptId);
+            }
+        });
+    }
+
+    public int backlog() {
+        return queue.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${quiz.submission.sweep-interval-ms:60000}",
+            initialDelayString = "${quiz.submission.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        for (Long attemptId : attemptRepository.findIdsByStatus(QuizAttempt.AttemptStatus.SUBMITTED)) {
+            if (failures.getOrDefault(attemptId, 0) < MAX_FAILURES) {
+                enqueue(attemptId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void enqueue(Long attemptId) {
+        if (enabled && pending.add(attemptId) && !queue.offer(attemptId)) {
+            // Queue is full, the next sweep will find the attempt again
+            pending.remove(attemptId);
+        }
+    }
+
+    private void drain() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                gradeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.err.println("Grading batch " + batch + " failed, grading its attempts one by one: " + e.getMessage());
+                batch.forEach(this::gradeAlone);
+            } finally {
+                batch.forEach(pending::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    private void gradeAlone(Long attemptId) {
+        try {
+            gradeBatch(List.of(attemptId));
+            failures.remove(attemptId);
+        } catch (RuntimeException e) {
+            // Stays SUBMITTED; retried by the sweep until parked
+            int failed = failures.merge(attemptId, 1, Integer::sum);
+            System.err.println("Grading attempt " + attemptId + " failed" + (failed >= MAX_FAILURES
+                    ? " " + failed + " times, parked until restart: " : ": ") + e.getMessage());
+        }
+    }
+
+    private void gradeBatch(List<Long> attemptIds) {
+        tx.executeWithoutResult(status -> {
+            List<QuizAttempt> attempts = attemptRepository.findWithAnswersByIdInAndStatus(
+                    attemptIds, QuizAttempt.AttemptStatus.SUBMITTED);
+            // Managed entities: grading only mutates them, the commit flushes batched updates
+            attempts.forEach(attemptGrader::grade);
+        });
+    }
+}
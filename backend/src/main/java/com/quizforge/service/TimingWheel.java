@@ -0,0 +1,116 @@
+package com.quizforge.service;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of long ids (Varghese &amp; Lauck).
+ * Four levels of 64 slots; level n slots are 64^n ticks wide, so one wheel covers
+ * 64^4 ticks (about 194 days at one second per tick) and later deadlines are parked
+ * in the top level and re-placed as it turns. Adding is O(1); each entry is moved
+ * down at most once per level before it fires.
+ * <p>
+ * Not thread-safe: the owner must call {@link #add} and {@link #advanceTo} from one thread.
+ */
+final class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * A scheduled id. Cancelling only flags the entry, it is dropped when its slot comes up.
+     */
+    static final class Entry {
+        final long id;
+        final long expirationTick;
+        volatile boolean cancelled;
+        Entry next;
+
+        Entry(long id, long expirationTick) {
+            this.id = id;
+            this.expirationTick = expirationTick;
+        }
+    }
+
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Places the entry; an entry that is already due is passed to expired immediately.
+     */
+    void add(Entry entry, LongConsumer expired) {
+        long delta = entry.expirationTick - currentTick;
+        if (delta <= 0) {
+            fire(entry, expired);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (entry.expirationTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        entry.next = slots[level][slot];
+        slots[level][slot] = entry;
+        size++;
+    }
+
+    /**
+     * Turns the wheel tick by tick up to the given tick and reports every id that expired.
+     */
+    void advanceTo(long tick, LongConsumer expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Cascade coarser levels whose slot boundary was just crossed, coarsest first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    int slot = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+                    Entry entry = detach(level, slot);
+                    while (entry != null) {
+                        Entry next = entry.next;
+                        entry.next = null;
+                        if (!entry.cancelled) {
+                            add(entry, expired);
+                        }
+                        entry = next;
+                    }
+                }
+            }
+            Entry entry = detach(0, (int) currentTick & SLOT_MASK);
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                fire(entry, expired);
+                entry = next;
+            }
+        }
+    }
+
+    private Entry detach(int level, int slot) {
+        Entry head = slots[level][slot];
+        slots[level][slot] = null;
+        for (Entry e = head; e != null; e = e.next) {
+            size--;
+        }
+        return head;
+    }
+
+    private static void fire(Entry entry, LongConsumer expired) {
+        if (!entry.cancelled) {
+            expired.accept(entry.id);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Moves questions, options, quiz_attempts and answers from IDENTITY columns to pooled sequences
+-- so Hibernate can batch their inserts.
+--
+-- Tables are still created by Hibernate (ddl-auto=update), which runs after Flyway.
+-- On a fresh database they do not exist yet, so every table change here is guarded.
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['questions', 'options', 'quiz_attempts', 'answers'] LOOP
+        -- INCREMENT BY must match allocationSize of the @SequenceGenerator
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', t || '_seq');
+
+        IF to_regclass(t) IS NOT NULL THEN
+            -- Hibernate's pooled optimizer hands out (value - 49) .. value,
+            -- so the next block has to start right after the current max id
+            EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 50 FROM %I), false)',
+                           t || '_seq', t);
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', t);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,9 @@
+-- Optimistic locking column for quiz_attempts (@Version), existing rows start at 0.
+-- Guarded because Hibernate creates the table itself on a fresh database.
+
+DO $$
+BEGIN
+    IF to_regclass('quiz_attempts') IS NOT NULL THEN
+        ALTER TABLE quiz_attempts ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+    END IF;
+END $$;
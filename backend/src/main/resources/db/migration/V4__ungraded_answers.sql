@@ -0,0 +1,9 @@
+-- Short answers without accepted answers are not graded, answers.is_correct stays null for them.
+-- Guarded because Hibernate creates the table itself on a fresh database.
+
+DO $$
+BEGIN
+    IF to_regclass('answers') IS NOT NULL THEN
+        ALTER TABLE answers ALTER COLUMN is_correct DROP NOT NULL;
+    END IF;
+END $$;
@@ -0,0 +1,168 @@
+package com.quizforge;
+
+import com.quizforge.dto.AnswerRequest;
+import com.quizforge.dto.AttemptResponse;
+import com.quizforge.dto.OptionRequest;
+import com.quizforge.dto.QuestionRequest;
+import com.quizforge.dto.QuizRequest;
+import com.quizforge.dto.QuizResponse;
+import com.quizforge.dto.SubmitQuizRequest;
+import com.quizforge.model.User;
+import com.quizforge.repository.UserRepository;
+import com.quizforge.security.JwtUtil;
+import com.quizforge.service.AdminService;
+import com.quizforge.service.CandidateService;
+import com.quizforge.service.QuizSnapshotCache;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements per read endpoint, so an N+1 walk over questions, options or attempts
+ * shows up as a failing count. The data has several quizzes, questions and attempts;
+ * the counts must not grow with them. Counting is per thread, background jobs do not interfere.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadEndpointStatementCountTest {
+
+    private static final int QUIZZES = 3;
+    private static final int QUESTIONS = 5;
+
+    @TestConfiguration
+    static class CountingDataSource {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource).name("counted").countQuery().build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private CandidateService candidateService;
+
+    @Autowired
+    private QuizSnapshotCache quizSnapshotCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final List<QuizResponse> quizzes = new ArrayList<>();
+    private Long attemptId;
+    private String adminToken;
+    private String candidateToken;
+
+    @BeforeAll
+    void createQuizzesAndAttempts() {
+        User admin = userRepository.findByEmail("admin@quizforge.com").orElseThrow();
+        User candidate = userRepository.findByEmail("candidate@example.com").orElseThrow();
+        adminToken = jwtUtil.generateToken(admin.getId(), admin.getEmail(), admin.getRole().name()).token();
+        candidateToken = jwtUtil.generateToken(candidate.getId(), candidate.getEmail(), candidate.getRole().name()).token();
+
+        for (int q = 0; q < QUIZZES; q++) {
+            List<QuestionRequest> questions = new ArrayList<>();
+            for (int i = 0; i < QUESTIONS; i++) {
+                questions.add(new QuestionRequest(null, "Question " + i, "MULTIPLE_CHOICE", 1, List.of(
+                        new OptionRequest(null, "Right", true),
+                        new OptionRequest(null, "Wrong", false),
+                        new OptionRequest(null, "Also wrong", false))));
+            }
+            QuizResponse quiz = adminService.createQuiz(
+                    new QuizRequest("Quiz " + q, "Statement counts", 30, true, questions), admin.getId());
+            quizzes.add(quiz);
+
+            AttemptResponse attempt = candidateService.startQuiz(quiz.id(), candidate.getId());
+            List<AnswerRequest> answers = quiz.questions().stream()
+                    .map(question -> new AnswerRequest(question.id(), question.options().get(0).id(), null))
+                    .toList();
+            candidateService.submitQuiz(new SubmitQuizRequest(attempt.id(), answers, null), candidate.getId());
+            attemptId = attempt.id();
+        }
+    }
+
+    @BeforeEach
+    void coldCaches() {
+        quizzes.forEach(quiz -> quizSnapshotCache.evict(quiz.id()));
+    }
+
+    @Test
+    void adminQuizList() throws Exception {
+        assertThat(statements("/api/quizzes", adminToken)).isEqualTo(1);
+    }
+
+    @Test
+    void candidateQuizList() throws Exception {
+        assertThat(statements("/api/quizzes", candidateToken)).isEqualTo(1);
+    }
+
+    @Test
+    void adminQuizDetail() throws Exception {
+        assertThat(statements("/api/quizzes/" + quizzes.get(0).id(), adminToken)).isEqualTo(2);
+    }
+
+    @Test
+    void candidateQuizDetail() throws Exception {
+        assertThat(statements("/api/quizzes/" + quizzes.get(0).id(), candidateToken)).isEqualTo(2);
+    }
+
+    @Test
+    void adminAttemptList() throws Exception {
+        assertThat(statements("/api/quizzes/attempts", adminToken)).isEqualTo(1);
+    }
+
+    @Test
+    void candidateAttemptList() throws Exception {
+        assertThat(statements("/api/quizzes/attempts", candidateToken)).isEqualTo(1);
+    }
+
+    @Test
+    void attemptResult() throws Exception {
+        assertThat(statements("/api/quizzes/attempts/" + attemptId, candidateToken)).isEqualTo(3);
+    }
+
+    private long statements(String path, String token) throws Exception {
+        QueryCountHolder.clear();
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+}
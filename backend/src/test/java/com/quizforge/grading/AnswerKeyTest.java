@@ -0,0 +1,84 @@
+package com.quizforge.grading;
+
+import com.quizforge.model.Option;
+import com.quizforge.model.Question;
+import com.quizforge.model.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Short answers are graded by their matcher, choices by the selected option, and a short answer
+ * question without accepted answers is reported as ungraded rather than wrong.
+ */
+class AnswerKeyTest {
+
+    private final Quiz quiz = new Quiz();
+
+    @BeforeEach
+    void identifyQuiz() {
+        quiz.setId(1L);
+    }
+
+    @Test
+    void shortAnswerWithoutAcceptedAnswersIsUngraded() {
+        Question question = question(30L, Question.QuestionType.SHORT_ANSWER, 4);
+        option(question, 301L, "a wrong answer", false);
+        AnswerKey key = AnswerKey.compile(quiz);
+
+        assertThat(AnswerKey.compileMatcher(question)).isNull();
+        assertThat(key.matcher(key.questionIndex(30L))).isNull();
+        assertThat(key.pointsFor(30L, null, "anything")).isEqualTo(AnswerKey.UNGRADED);
+        assertThat(key.pointsFor(30L, null, null)).isEqualTo(AnswerKey.UNGRADED);
+    }
+
+    @Test
+    void shortAnswerIsGradedByItsAcceptedAnswers() {
+        Question question = question(30L, Question.QuestionType.SHORT_ANSWER, 4);
+        option(question, 301L, "~photosynthesis", true);
+        option(question, 302L, "respiration", false);
+        AnswerKey key = AnswerKey.compile(quiz);
+
+        assertThat(key.pointsFor(30L, null, "Photosyntesis")).isEqualTo(4);
+        assertThat(key.pointsFor(30L, null, "respiration")).isZero();
+        assertThat(key.pointsFor(30L, null, null)).isZero();
+        // Accepted answers are not choices
+        assertThat(key.optionIndex(301L)).isEqualTo(-1);
+        assertThat(key.pointsFor(30L, 301L, null)).isZero();
+    }
+
+    @Test
+    void choiceIsGradedBySelectedOptionOfTheSameQuestion() {
+        Question first = question(20L, Question.QuestionType.MULTIPLE_CHOICE, 2);
+        option(first, 202L, "right", true);
+        option(first, 201L, "wrong", false);
+        Question second = question(10L, Question.QuestionType.TRUE_FALSE, 1);
+        option(second, 101L, "true", true);
+        AnswerKey key = AnswerKey.compile(quiz);
+
+        assertThat(key.totalPoints()).isEqualTo(3);
+        assertThat(key.pointsFor(20L, 202L, null)).isEqualTo(2);
+        assertThat(key.pointsFor(20L, 201L, null)).isZero();
+        assertThat(key.pointsFor(20L, 101L, null)).isZero();
+        assertThat(key.pointsFor(20L, null, "right")).isZero();
+        assertThat(key.pointsFor(99L, 202L, null)).isZero();
+    }
+
+    private Question question(Long id, Question.QuestionType type, int points) {
+        Question question = new Question();
+        question.setId(id);
+        question.setType(type);
+        question.setPoints(points);
+        quiz.getQuestions().add(question);
+        return question;
+    }
+
+    private static void option(Question question, Long id, String text, boolean correct) {
+        Option option = new Option();
+        option.setId(id);
+        option.setOptionText(text);
+        option.setIsCorrect(correct);
+        question.getOptions().add(option);
+    }
+}
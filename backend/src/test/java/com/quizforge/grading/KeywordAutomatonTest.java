@@ -0,0 +1,55 @@
+package com.quizforge.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * One scan reports every keyword occurring in the text, including keywords that overlap
+ * or end inside another one, as bit k for keyword k.
+ */
+class KeywordAutomatonTest {
+
+    @Test
+    void reportsOverlappingKeywordsFoundThroughFailLinks() {
+        KeywordAutomaton automaton = KeywordAutomaton.build(List.of("he", "she", "his", "hers"));
+
+        assertThat(automaton.scan("ushers")).isEqualTo(0b1011L);
+        assertThat(automaton.scan("this")).isEqualTo(0b0100L);
+        assertThat(automaton.scan("sh")).isZero();
+        assertThat(automaton.scan("")).isZero();
+    }
+
+    @Test
+    void paddedKeywordsMatchWholeWordsOfAPaddedText() {
+        KeywordAutomaton automaton = KeywordAutomaton.build(List.of(" cat ", " cell wall "));
+
+        assertThat(automaton.scan(" cat ")).isEqualTo(0b01L);
+        assertThat(automaton.scan(" a cat and a cell wall ")).isEqualTo(0b11L);
+        assertThat(automaton.scan(" cats in a cell walls ")).isZero();
+        // Adjacent keywords share the space between them
+        assertThat(automaton.scan(" cat cell wall ")).isEqualTo(0b11L);
+    }
+
+    @Test
+    void lastOfSixtyFourKeywordsUsesTheHighBit() {
+        List<String> keywords = IntStream.range(0, KeywordAutomaton.MAX_KEYWORDS).mapToObj(i -> " k" + i + " ").toList();
+        KeywordAutomaton automaton = KeywordAutomaton.build(keywords);
+
+        assertThat(automaton.scan(" k63 ")).isEqualTo(Long.MIN_VALUE);
+        assertThat(automaton.scan(String.join("", keywords))).isEqualTo(-1L);
+    }
+
+    @Test
+    void rejectsMoreThanSixtyFourKeywords() {
+        List<String> keywords = IntStream.range(0, KeywordAutomaton.MAX_KEYWORDS + 1).mapToObj(i -> "k" + i).toList();
+
+        assertThatThrownBy(() -> KeywordAutomaton.build(keywords))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("At most 64 keywords");
+    }
+}
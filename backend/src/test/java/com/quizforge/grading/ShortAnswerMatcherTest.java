@@ -0,0 +1,202 @@
+package com.quizforge.grading;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exact, {@code ~} fuzzy and {@code kw:} keyword rules, the edit bound clamped to 1..3,
+ * keywords matching whole words only and the 64-keyword limit per question.
+ */
+class ShortAnswerMatcherTest {
+
+    @Test
+    void exactRuleIgnoresCaseAccentsPunctuationAndSpacing() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("São Paulo"));
+
+        assertThat(matcher.matches("sao paulo")).isTrue();
+        assertThat(matcher.matches("  SÃO   PAULO!! ")).isTrue();
+        assertThat(matcher.matches("Sao-Paulo")).isTrue();
+        assertThat(matcher.matches("Sao Paulo city")).isFalse();
+        assertThat(matcher.matches("Sao Paolo")).isFalse();
+    }
+
+    @Test
+    void blankOrMissingAnswerNeverMatches() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("Paris", "~Paris", "kw: paris"));
+
+        assertThat(matcher.matches(null)).isFalse();
+        assertThat(matcher.matches("")).isFalse();
+        assertThat(matcher.matches(" ?! ")).isFalse();
+    }
+
+    // One edit per five characters of the normalized rule, at least one and at most three
+    @ParameterizedTest
+    @CsvSource({
+            "abcd, 1",
+            "abcdefghi, 1",
+            "abcdefghij, 2",
+            "abcdefghijklmn, 2",
+            "abcdefghijklmno, 3",
+            "abcdefghijklmnopqrstuvwxyzabcd, 3"
+    })
+    void fuzzyRuleAllowsEditsClampedToOneToThree(String rule, int allowed) {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("~" + rule));
+
+        assertThat(matcher.matches(rule)).isTrue();
+        assertThat(matcher.matches(substituted(rule, allowed))).isTrue();
+        assertThat(matcher.matches(rule.substring(allowed))).isTrue();
+        assertThat(matcher.matches(substituted(rule, allowed + 1))).isFalse();
+        assertThat(matcher.matches(rule.substring(allowed + 1))).isFalse();
+    }
+
+    @Test
+    void fuzzyRuleComparesNormalizedText() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("~Photosynthesis"));
+
+        assertThat(matcher.matches("PHOTOSYNTESIS")).isTrue();
+        assertThat(matcher.matches("fotosynthesis")).isTrue();
+        assertThat(matcher.matches("photo synthesis")).isTrue();
+        assertThat(matcher.matches("fotosintesys")).isFalse();
+    }
+
+    @Test
+    void bandedDistanceAgreesWithFullLevenshtein() {
+        Random random = new Random(7);
+        for (int round = 0; round < 5000; round++) {
+            String a = randomWord(random);
+            String b = random.nextBoolean() ? randomWord(random) : mutate(a, random);
+            int distance = levenshtein(a, b);
+            for (int maxEdits = 1; maxEdits <= 3; maxEdits++) {
+                assertThat(ShortAnswerMatcher.withinEdits(a, b, maxEdits))
+                        .as("%s vs %s within %d", a, b, maxEdits)
+                        .isEqualTo(distance <= maxEdits);
+            }
+        }
+    }
+
+    @Test
+    void keywordRuleNeedsEveryKeywordInAnyOrder() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("kw: mitochondria, energy"));
+
+        assertThat(matcher.matches("Energy is produced in the mitochondria.")).isTrue();
+        assertThat(matcher.matches("mitochondria energy")).isTrue();
+        assertThat(matcher.matches("The mitochondria")).isFalse();
+    }
+
+    @Test
+    void keywordsOnlyMatchWholeWords() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("KW: cat, cell wall"));
+
+        assertThat(matcher.matches("cat cell wall")).isTrue();
+        assertThat(matcher.matches("the cell wall of a cat.")).isTrue();
+        assertThat(matcher.matches("concatenate the cell wall")).isFalse();
+        assertThat(matcher.matches("cats have a cell wall")).isFalse();
+        assertThat(matcher.matches("cat cell walls")).isFalse();
+        assertThat(matcher.matches("cat cellwall")).isFalse();
+    }
+
+    @Test
+    void anyRuleOfTheQuestionIsEnough() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("H2O", "~dihydrogen monoxide", "kw: water"));
+
+        assertThat(matcher.matches("h2o")).isTrue();
+        assertThat(matcher.matches("dihydrogen monoxyde")).isTrue();
+        assertThat(matcher.matches("it is water")).isTrue();
+        assertThat(matcher.matches("ice")).isFalse();
+    }
+
+    @Test
+    void keywordSetsAreCheckedPerRule() {
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of("kw: red, apple", "kw: green, pear"));
+
+        assertThat(matcher.matches("a green pear")).isTrue();
+        assertThat(matcher.matches("a red pear")).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "  ", "~", "~ !!", "kw:", "kw: , ;", "?!"})
+    void ruleWithoutWordsIsRejected(String rule) {
+        assertThatThrownBy(() -> ShortAnswerMatcher.compile(List.of(rule)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("has no words to match");
+    }
+
+    @Test
+    void sixtyFourKeywordsAreSupported() {
+        List<String> words = IntStream.range(0, 64).mapToObj(i -> "word" + i).toList();
+        // The same keyword in a second rule shares its slot
+        ShortAnswerMatcher matcher = ShortAnswerMatcher.compile(List.of(
+                "kw: " + String.join(", ", words), "kw: word0, word63"));
+
+        assertThat(matcher.matches(String.join(" ", words))).isTrue();
+        assertThat(matcher.matches("word63 and word0")).isTrue();
+        assertThat(matcher.matches(words.stream().skip(1).collect(Collectors.joining(" ")) + " word0x")).isFalse();
+    }
+
+    @Test
+    void moreThanSixtyFourKeywordsAreRejected() {
+        List<String> words = IntStream.range(0, 65).mapToObj(i -> "word" + i).toList();
+
+        assertThatThrownBy(() -> ShortAnswerMatcher.compile(List.of("kw: " + String.join(", ", words))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("64 keywords");
+    }
+
+    // Replaces the first n characters with a character that never occurs in the rule
+    private static String substituted(String text, int n) {
+        return "9".repeat(n) + text.substring(n);
+    }
+
+    private static String randomWord(Random random) {
+        int length = random.nextInt(12);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static String mutate(String word, Random random) {
+        List<Character> chars = new ArrayList<>(word.chars().mapToObj(c -> (char) c).toList());
+        int edits = random.nextInt(5);
+        for (int i = 0; i < edits; i++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || chars.isEmpty()) {
+                chars.add(random.nextInt(chars.size() + 1), (char) ('a' + random.nextInt(3)));
+            } else if (operation == 1) {
+                chars.remove(random.nextInt(chars.size()));
+            } else {
+                chars.set(random.nextInt(chars.size()), (char) ('a' + random.nextInt(3)));
+            }
+        }
+        return chars.stream().map(String::valueOf).collect(Collectors.joining());
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(d[i - 1][j - 1] + cost, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
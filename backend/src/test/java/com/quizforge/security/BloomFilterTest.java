@@ -0,0 +1,104 @@
+package com.quizforge.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Added values are always reported, even when the filter is overfilled or written from several
+ * threads at once, and values never added are reported at about the configured rate.
+ */
+class BloomFilterTest {
+
+    private static final int ENTRIES = 20_000;
+
+    @Test
+    void neverMissesAnAddedValue() {
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.001);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            String jti = UUID.randomUUID().toString();
+            filter.add(jti);
+            added.add(jti);
+        }
+
+        assertThat(added).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void neverMissesAnAddedValueWhenOverfilled() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        for (int i = 0; i < 5000; i++) {
+            filter.add("jti-" + i);
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            assertThat(filter.mightContain("jti-" + i)).as("jti-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void neverMissesValuesAddedConcurrently() throws Exception {
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.001);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < ENTRIES / 4; i++) {
+                        filter.add(thread + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < ENTRIES / 4; i++) {
+                assertThat(filter.mightContain(t + "-" + i)).as("%d-%d", t, i).isTrue();
+            }
+        }
+    }
+
+    // Sequential ids on both sides, so clustered input must not raise the rate
+    @ParameterizedTest
+    @ValueSource(doubles = {0.05, 0.01, 0.001})
+    void falsePositiveRateStaysNearTheConfiguredOne(double falsePositiveRate) {
+        BloomFilter filter = new BloomFilter(ENTRIES, falsePositiveRate);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.add("revoked-" + i);
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(falsePositiveRate * 1.5);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.001);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("jti")).isFalse();
+    }
+}
@@ -0,0 +1,129 @@
+package com.quizforge.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Login bodies up to the 4 KB limit are limited per account, larger ones share the oversized bucket,
+ * and the controller receives the whole body either way, including what the filter buffered.
+ */
+class RateLimitFilterTest {
+
+    private static final int LIMIT = 4096;
+
+    private final RateLimiter rateLimiter = spy(new RateLimiter(new MockEnvironment(), 100));
+    private final RateLimitFilter filter = new RateLimitFilter();
+
+    @BeforeEach
+    void wireFilter() {
+        ReflectionTestUtils.setField(filter, "rateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, LIMIT - 1, LIMIT})
+    void loginBodyWithinTheLimitIsLimitedPerAccountAndPassedOnWhole(int size) throws Exception {
+        byte[] body = loginBody(size);
+
+        byte[] received = login(body, body.length);
+
+        assertThat(received).isEqualTo(body);
+        verify(rateLimiter).tryAcquire("login:alice@example.com", RateLimiter.EndpointClass.LOGIN);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {LIMIT + 1, 3 * LIMIT})
+    void loginBodyOverTheLimitSharesTheOversizedBucketAndIsPassedOnWhole(int size) throws Exception {
+        byte[] body = loginBody(size);
+
+        byte[] received = login(body, body.length);
+
+        assertThat(received).isEqualTo(body);
+        verify(rateLimiter).tryAcquire("login:oversized", RateLimiter.EndpointClass.LOGIN);
+    }
+
+    @Test
+    void oversizedBodyWithoutAContentLengthIsPassedOnWhole() throws Exception {
+        byte[] body = loginBody(3 * LIMIT);
+
+        // Chunked: the filter buffers the head and the controller reads the rest from the original stream
+        byte[] received = login(body, -1);
+
+        assertThat(received).isEqualTo(body);
+        verify(rateLimiter).tryAcquire("login:oversized", RateLimiter.EndpointClass.LOGIN);
+    }
+
+    @Test
+    void loginReaderReturnsTheWholeBody() throws Exception {
+        byte[] body = loginBody(200);
+        MockHttpServletRequest request = loginRequest(body, body.length);
+        AtomicReference<String> received = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest forwarded, ServletResponse response) throws IOException {
+                StringBuilder text = new StringBuilder();
+                forwarded.getReader().lines().forEach(text::append);
+                received.set(text.toString());
+            }
+        });
+
+        assertThat(received.get()).isEqualTo(new String(body, StandardCharsets.UTF_8));
+    }
+
+    // What the controller reads from the request the filter passes on
+    private byte[] login(byte[] body, long contentLength) throws Exception {
+        MockHttpServletRequest request = loginRequest(body, contentLength);
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest forwarded, ServletResponse ignored) throws IOException {
+                received.set(forwarded.getInputStream().readAllBytes());
+            }
+        });
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        return received.get();
+    }
+
+    private static MockHttpServletRequest loginRequest(byte[] body, long contentLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return contentLength;
+            }
+        };
+        request.setServletPath("/api/auth/login");
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    // A login JSON of exactly size bytes, padded in the password
+    private static byte[] loginBody(int size) {
+        String head = "{\"email\":\"Alice@Example.com\",\"password\":\"";
+        String tail = "\"}";
+        return (head + "x".repeat(size - head.length() - tail.length()) + tail).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.quizforge.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A bucket allows its capacity at once, refuses the next request with a retry delay and
+ * refills over time; once the map is full, new callers share the overflow bucket.
+ */
+class RateLimiterTest {
+
+    private static final RateLimiter.EndpointClass LOGIN = RateLimiter.EndpointClass.LOGIN;
+
+    @Test
+    void allowsTheCapacityThenRefuses() {
+        RateLimiter limiter = limiter(3, 1, 100);
+
+        assertThat(limiter.tryAcquire("alice", LOGIN).remaining()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("alice", LOGIN).remaining()).isEqualTo(1);
+        RateLimiter.Decision last = limiter.tryAcquire("alice", LOGIN);
+        assertThat(last.allowed()).isTrue();
+        assertThat(last.remaining()).isZero();
+        assertThat(last.limit()).isEqualTo(3);
+
+        RateLimiter.Decision refused = limiter.tryAcquire("alice", LOGIN);
+        assertThat(refused.allowed()).isFalse();
+        assertThat(refused.remaining()).isZero();
+        // One token per minute comes back
+        assertThat(refused.retryAfterSeconds()).isBetween(1L, 60L);
+        assertThat(refused.resetSeconds()).isBetween(120L, 180L);
+    }
+
+    @Test
+    void callersAndEndpointClassesHaveBucketsOfTheirOwn() {
+        RateLimiter limiter = limiter(1, 1, 100);
+
+        assertThat(limiter.tryAcquire("alice", LOGIN).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("alice", LOGIN).allowed()).isFalse();
+        assertThat(limiter.tryAcquire("bob", LOGIN).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("alice", RateLimiter.EndpointClass.READ).allowed()).isTrue();
+    }
+
+    @Test
+    void refusedCallerIsAllowedAgainOnceATokenRefills() throws InterruptedException {
+        // One token every 100 ms
+        RateLimiter limiter = limiter(2, 600, 100);
+        limiter.tryAcquire("alice", LOGIN);
+        limiter.tryAcquire("alice", LOGIN);
+        assertThat(limiter.tryAcquire("alice", LOGIN).allowed()).isFalse();
+
+        Thread.sleep(150);
+
+        assertThat(limiter.tryAcquire("alice", LOGIN).allowed()).isTrue();
+    }
+
+    @Test
+    void refilledBucketsAreSwept() throws InterruptedException {
+        RateLimiter limiter = limiter(2, 600, 100);
+        limiter.tryAcquire("alice", LOGIN);
+        limiter.tryAcquire("bob", LOGIN);
+        assertThat(limiter.size()).isEqualTo(2);
+
+        Thread.sleep(150);
+        limiter.evictIdle();
+
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void newCallersShareTheOverflowBucketWhenTheMapIsFull() {
+        RateLimiter limiter = limiter(1, 1, 2);
+        assertThat(limiter.tryAcquire("alice", LOGIN).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("bob", LOGIN).allowed()).isTrue();
+
+        assertThat(limiter.tryAcquire("carol", LOGIN).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("dave", LOGIN).allowed()).isFalse();
+        assertThat(limiter.size()).isEqualTo(2);
+
+        // Callers that already have a bucket keep it
+        assertThat(limiter.tryAcquire("alice", LOGIN).allowed()).isFalse();
+        // Every endpoint class has an overflow bucket of its own
+        assertThat(limiter.tryAcquire("dave", RateLimiter.EndpointClass.REFRESH).allowed()).isTrue();
+    }
+
+    private static RateLimiter limiter(long capacity, long refillPerMinute, int maxEntries) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.login.capacity", String.valueOf(capacity))
+                .withProperty("rate-limit.login.refill-per-minute", String.valueOf(refillPerMinute))
+                .withProperty("rate-limit.read.capacity", String.valueOf(capacity))
+                .withProperty("rate-limit.read.refill-per-minute", String.valueOf(refillPerMinute))
+                .withProperty("rate-limit.refresh.capacity", String.valueOf(capacity))
+                .withProperty("rate-limit.refresh.refill-per-minute", String.valueOf(refillPerMinute));
+        return new RateLimiter(environment, maxEntries);
+    }
+}
@@ -0,0 +1,179 @@
+package com.quizforge.security;
+
+import com.quizforge.model.RevokedToken;
+import com.quizforge.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tokens are checked against the database until the first load, and afterwards only on a filter hit.
+ * A revocation is never lost: it reaches the current filter right away, and while a reload is running
+ * it also reaches the filter being built through {@code next}, even when the reload's read missed it.
+ */
+class TokenRevocationListTest {
+
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    // Committed revoked_tokens rows
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    // What the reload reads, by default the committed rows
+    private Supplier<List<String>> activeJtis = () -> new ArrayList<>(stored);
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void createRevocationList() {
+        revocationList = new TokenRevocationList(mock(PlatformTransactionManager.class), 1000, 0.001);
+        ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", revokedTokenRepository);
+        when(revokedTokenRepository.existsById(anyString()))
+                .thenAnswer(invocation -> stored.contains(invocation.<String>getArgument(0)));
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            stored.add(invocation.<RevokedToken>getArgument(0).getJti());
+            return invocation.getArgument(0);
+        });
+        when(revokedTokenRepository.findActiveJtis(any())).thenAnswer(invocation -> activeJtis.get());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void checksTheDatabaseUntilTheFirstLoad() {
+        stored.add("revoked");
+
+        assertThat(revocationList.isRevoked("revoked")).isTrue();
+        assertThat(revocationList.isRevoked("active")).isFalse();
+        verify(revokedTokenRepository).existsById("active");
+    }
+
+    @Test
+    void loadedFilterRulesOutUnrevokedTokensWithoutTheDatabase() {
+        stored.add("revoked");
+        revocationList.reload();
+
+        assertThat(revocationList.isRevoked("revoked")).isTrue();
+        assertThat(revocationList.isRevoked("active")).isFalse();
+        verify(revokedTokenRepository, never()).existsById("active");
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+
+    @Test
+    void reloadPicksUpRevocationsOfOtherInstances() {
+        revocationList.reload();
+        stored.add("elsewhere");
+        assertThat(revocationList.isRevoked("elsewhere")).isFalse();
+
+        revocationList.reload();
+
+        assertThat(revocationList.isRevoked("elsewhere")).isTrue();
+    }
+
+    @Test
+    void revocationOutsideATransactionIsVisibleAtOnce() {
+        revocationList.reload();
+
+        revocationList.revoke("revoked", LocalDateTime.now().plusMinutes(15));
+
+        assertThat(revocationList.isRevoked("revoked")).isTrue();
+    }
+
+    @Test
+    void revocationInATransactionReachesTheFilterOnCommit() {
+        revocationList.reload();
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocationList.revoke("revoked", LocalDateTime.now().plusMinutes(15));
+        assertThat(revocationList.isRevoked("revoked")).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(revocationList.isRevoked("revoked")).isTrue();
+    }
+
+    @Test
+    void expiredTokenIsNotStored() {
+        revocationList.revoke("expired", LocalDateTime.now().minusSeconds(1));
+
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void revocationMissedByTheReloadReadReachesTheRebuiltFilter() {
+        revocationList.reload();
+        AtomicReference<Boolean> revokedDuringLoad = new AtomicReference<>();
+        activeJtis = () -> {
+            // The read's snapshot is taken before the revocation commits
+            List<String> snapshot = new ArrayList<>(stored);
+            revocationList.revoke("late", LocalDateTime.now().plusMinutes(15));
+            revokedDuringLoad.set(revocationList.isRevoked("late"));
+            return snapshot;
+        };
+
+        revocationList.reload();
+
+        // The old filter answered while loading, the rebuilt one received it through next
+        assertThat(revokedDuringLoad.get()).isTrue();
+        assertThat(revocationList.isRevoked("late")).isTrue();
+    }
+
+    @Test
+    void revocationDuringTheFirstLoadReachesTheFilter() {
+        activeJtis = () -> {
+            revocationList.revoke("late", LocalDateTime.now().plusMinutes(15));
+            return List.of();
+        };
+
+        revocationList.reload();
+
+        assertThat(revocationList.isRevoked("late")).isTrue();
+    }
+
+    @Test
+    void noRevocationIsLostWhileReloadsRun() throws InterruptedException {
+        revocationList.reload();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread reloader = new Thread(() -> {
+            while (done.getCount() > 0) {
+                revocationList.reload();
+            }
+        });
+        reloader.start();
+
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String jti = "jti-" + i;
+            revocationList.revoke(jti, LocalDateTime.now().plusMinutes(15));
+            revoked.add(jti);
+        }
+        done.countDown();
+        reloader.join();
+
+        assertThat(revoked).allMatch(revocationList::isRevoked);
+        revocationList.reload();
+        assertThat(revoked).allMatch(revocationList::isRevoked);
+    }
+}
@@ -0,0 +1,95 @@
+package com.quizforge.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A full cache still caches every new token, dropping the oldest entry to make room,
+ * and never holds more than max-entries once the writers are done.
+ */
+class VerifiedTokenCacheTest {
+
+    private static final long LIVE = Long.MAX_VALUE;
+
+    @Test
+    void fullCacheDropsTheOldestEntryForANewToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(3);
+        for (String key : List.of("a", "b", "c", "d")) {
+            cache.put(key, claims(key, LIVE));
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNotNull();
+        assertThat(cache.get("d")).isNotNull();
+    }
+
+    @Test
+    void cachingATokenAgainKeepsItsPlace() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("a", claims("a", LIVE));
+        cache.put("a", claims("a", LIVE));
+        cache.put("b", claims("b", LIVE));
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.put("c", claims("c", LIVE));
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNotNull();
+        assertThat(cache.get("c")).isNotNull();
+    }
+
+    @Test
+    void sweepDropsExpiredEntriesAndFreesTheirPlaces() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("expired", claims("expired", System.currentTimeMillis() - 1));
+        cache.put("live", claims("live", LIVE));
+
+        cache.evictExpired();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("expired")).isNull();
+
+        cache.put("next", claims("next", LIVE));
+        assertThat(cache.get("live")).isNotNull();
+        assertThat(cache.get("next")).isNotNull();
+        cache.put("last", claims("last", LIVE));
+        assertThat(cache.get("live")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentWritersNeverLeaveTheCacheOverItsBound() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String key = thread + "-" + i;
+                        cache.put(key, claims(key, LIVE));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Writers racing on the last place may both drop an entry, so it can end up slightly below
+        assertThat(cache.size()).isLessThanOrEqualTo(1000).isGreaterThan(900);
+    }
+
+    private static JwtUtil.TokenClaims claims(String jti, long expiresAtMillis) {
+        return new JwtUtil.TokenClaims(jti, 1L, "candidate@example.com", "CANDIDATE", expiresAtMillis);
+    }
+}
@@ -0,0 +1,263 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.AnswerRequest;
+import com.quizforge.dto.AttemptResponse;
+import com.quizforge.dto.OptionRequest;
+import com.quizforge.dto.QuestionRequest;
+import com.quizforge.dto.QuestionResponse;
+import com.quizforge.dto.QuizRequest;
+import com.quizforge.dto.QuizResponse;
+import com.quizforge.dto.SubmitQuizRequest;
+import com.quizforge.exception.ConflictException;
+import com.quizforge.grading.AttemptGrader;
+import com.quizforge.model.User;
+import com.quizforge.repository.QuizAttemptRepository;
+import com.quizforge.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Buffered answers are written exactly once whichever way a flush and a finalization interleave:
+ * a finalization waits for the running flush and takes over what it failed to write, and a
+ * finalization that rolls back puts its drained answers back for the next flush or submission.
+ * Every test ends by counting the answer rows of each question.
+ */
+@SpringBootTest(properties = "quiz.autosave.flush-interval-ms=3600000") // flushes run only when a test calls them
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AnswerAutosaveBufferTest {
+
+    private static final int QUESTIONS = 4;
+    private static final String FLUSH_THREAD = "autosave-flush";
+
+    @SpyBean
+    private AttemptGrader attemptGrader;
+
+    @Autowired
+    private AnswerAutosaveBuffer answerAutosaveBuffer;
+
+    @Autowired
+    private CandidateService candidateService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private AttemptFinalizer attemptFinalizer;
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private QuizResponse quiz;
+    private Long candidateId;
+
+    @BeforeAll
+    void createQuiz() {
+        User admin = userRepository.findByEmail("admin@quizforge.com").orElseThrow();
+        candidateId = userRepository.findByEmail("candidate@example.com").orElseThrow().getId();
+        List<QuestionRequest> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            questions.add(new QuestionRequest(null, "Question " + i, "MULTIPLE_CHOICE", 1, List.of(
+                    new OptionRequest(null, "Right", true),
+                    new OptionRequest(null, "Wrong", false))));
+        }
+        quiz = adminService.createQuiz(new QuizRequest("Autosave", "Flush races", 30, true, questions), admin.getId());
+    }
+
+    @Test
+    void finalizationWaitsForTheRunningFlush() throws Exception {
+        Long attemptId = startWithWrongAnswers();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockFlush(writing, release, false);
+
+        Thread flush = new Thread(answerAutosaveBuffer::flush, FLUSH_THREAD);
+        flush.start();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        Submission submission = submitInBackground(attemptId, List.of(right(0)));
+        awaitWaiting(submission);
+        release.countDown();
+        flush.join();
+
+        assertThat(submission.result().get(5, TimeUnit.SECONDS).score()).isEqualTo(1);
+        assertOneRowPerQuestion(attemptId, 0);
+    }
+
+    @Test
+    void finalizationTakesOverWhatAFailedFlushCouldNotWrite() throws Exception {
+        Long attemptId = startWithWrongAnswers();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockFlush(writing, release, true);
+
+        Thread flush = new Thread(answerAutosaveBuffer::flush, FLUSH_THREAD);
+        flush.start();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        Submission submission = submitInBackground(attemptId, List.of(right(2)));
+        awaitWaiting(submission);
+        release.countDown();
+        flush.join();
+
+        assertThat(submission.result().get(5, TimeUnit.SECONDS).score()).isEqualTo(1);
+        assertOneRowPerQuestion(attemptId, 2);
+    }
+
+    @Test
+    void flushesAndSubmissionsRunningTogetherWriteEachAnswerOnce() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Long attemptId = startWithWrongAnswers();
+            int rightQuestion = round % QUESTIONS;
+            CountDownLatch start = new CountDownLatch(1);
+            Thread flush = new Thread(() -> {
+                await(start);
+                answerAutosaveBuffer.flush();
+            });
+            flush.start();
+            CompletableFuture<AttemptResponse> submission = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return candidateService.submitQuiz(
+                        new SubmitQuizRequest(attemptId, List.of(right(rightQuestion)), null), candidateId);
+            });
+            start.countDown();
+            flush.join();
+
+            assertThat(submission.get(5, TimeUnit.SECONDS).score()).isEqualTo(1);
+            assertOneRowPerQuestion(attemptId, rightQuestion);
+        }
+    }
+
+    @Test
+    void rolledBackFinalizationPutsTheDrainedAnswersBack() {
+        Long attemptId = startWithWrongAnswers();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            attemptFinalizer.finalizeAttempt(attemptRepository.findById(attemptId).orElseThrow(), null, LocalDateTime.now());
+            status.setRollbackOnly();
+        });
+        assertThat(answerRows(attemptId)).isEmpty();
+
+        // Reopened: saves are accepted again and the drained answers reach the next flush
+        candidateService.autosaveAnswer(attemptId, right(1), candidateId);
+        answerAutosaveBuffer.flush();
+        AttemptResponse submitted = candidateService.submitQuiz(new SubmitQuizRequest(attemptId, null, null), candidateId);
+
+        assertThat(submitted.score()).isEqualTo(1);
+        assertOneRowPerQuestion(attemptId, 1);
+        assertThatThrownBy(() -> candidateService.autosaveAnswer(attemptId, right(0), candidateId))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    private Long startWithWrongAnswers() {
+        Long attemptId = candidateService.startQuiz(quiz.id(), candidateId).id();
+        for (int i = 0; i < QUESTIONS; i++) {
+            candidateService.autosaveAnswer(attemptId, answer(i, 1), candidateId);
+        }
+        return attemptId;
+    }
+
+    // Holds the flush thread once it has drained and is about to write, optionally failing the write
+    private void blockFlush(CountDownLatch writing, CountDownLatch release, boolean fail) {
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals(FLUSH_THREAD)) {
+                writing.countDown();
+                await(release);
+                if (fail) {
+                    throw new IllegalStateException("database unavailable");
+                }
+            }
+            return invocation.callRealMethod();
+        }).when(attemptGrader).recordAnswers(any(), any());
+    }
+
+    private Submission submitInBackground(Long attemptId, List<AnswerRequest> answers) {
+        CompletableFuture<AttemptResponse> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(candidateService.submitQuiz(new SubmitQuizRequest(attemptId, answers, null), candidateId));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, "submission");
+        thread.start();
+        return new Submission(thread, result);
+    }
+
+    private record Submission(Thread thread, CompletableFuture<AttemptResponse> result) {}
+
+    // The submission has closed the buffer and waits for the flush's in-flight future
+    private static void awaitWaiting(Submission submission) throws InterruptedException {
+        Thread thread = submission.thread();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+
+    private void assertOneRowPerQuestion(Long attemptId, int rightQuestion) {
+        Map<Long, Long> rows = answerRows(attemptId);
+        assertThat(rows).hasSize(QUESTIONS);
+        for (int i = 0; i < QUESTIONS; i++) {
+            Long option = quiz.questions().get(i).options().get(i == rightQuestion ? 0 : 1).id();
+            assertThat(rows.get(quiz.questions().get(i).id())).as("question %d", i).isEqualTo(option);
+        }
+    }
+
+    // Selected option per question; a question answered twice fails the assertion on the row count
+    private Map<Long, Long> answerRows(Long attemptId) {
+        Map<Long, Long> rows = new HashMap<>();
+        jdbcTemplate.query("select question_id, selected_option_id from answers where attempt_id = ?",
+                row -> {
+                    Long previous = rows.put(row.getLong(1), row.getLong(2));
+                    assertThat(previous).as("second answer row of question %d", row.getLong(1)).isNull();
+                }, attemptId);
+        return rows;
+    }
+
+    private AnswerRequest right(int question) {
+        return answer(question, 0);
+    }
+
+    private AnswerRequest answer(int question, int option) {
+        QuestionResponse q = quiz.questions().get(question);
+        return new AnswerRequest(q.id(), q.options().get(option).id(), null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
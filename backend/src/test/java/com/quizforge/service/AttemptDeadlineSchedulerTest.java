@@ -0,0 +1,161 @@
+package com.quizforge.service;
+
+import com.quizforge.model.Quiz;
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Expired attempts are finalized in one batch; when the batch fails they are closed one by one
+ * and an attempt that still fails is rescheduled a minute later instead of being dropped.
+ * Runs the real ticker, so expired attempts are picked up within about a second.
+ */
+class AttemptDeadlineSchedulerTest {
+
+    private static final long WAIT_MILLIS = 5000;
+
+    private final QuizAttemptRepository attemptRepository = mock(QuizAttemptRepository.class);
+    private final AttemptFinalizer attemptFinalizer = mock(AttemptFinalizer.class);
+    private final Map<Long, QuizAttempt> attempts = new HashMap<>();
+
+    private AttemptDeadlineScheduler scheduler;
+
+    @BeforeEach
+    void createScheduler() {
+        // A mocked transaction manager: TransactionTemplate runs the callback and "commits" or "rolls back"
+        scheduler = new AttemptDeadlineScheduler(mock(PlatformTransactionManager.class), true, 0, 200, false);
+        ReflectionTestUtils.setField(scheduler, "attemptRepository", attemptRepository);
+        ReflectionTestUtils.setField(scheduler, "attemptFinalizer", attemptFinalizer);
+        when(attemptRepository.findWithAnswersByIdInAndStatus(any(), eq(QuizAttempt.AttemptStatus.IN_PROGRESS)))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(attempts::get)
+                        .toList());
+    }
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void finalizesExpiredAttemptsInOneBatch() {
+        schedule(expired(1L));
+        schedule(expired(2L));
+        schedule(expired(3L));
+
+        verify(attemptRepository, timeout(WAIT_MILLIS)).findWithAnswersByIdInAndStatus(
+                argThat(ids -> ids.containsAll(List.of(1L, 2L, 3L))), eq(QuizAttempt.AttemptStatus.IN_PROGRESS));
+        verify(attemptFinalizer, timeout(WAIT_MILLIS).times(3)).finalizeAttempt(any(), isNull(), any());
+        awaitOpenAttempts(0);
+    }
+
+    @Test
+    void failedBatchFallsBackToOneByOneAndReschedulesTheFailingAttempt() {
+        QuizAttempt failing = expired(2L);
+        doThrow(new IllegalStateException("cannot close"))
+                .when(attemptFinalizer).finalizeAttempt(eq(failing), isNull(), any());
+        long failedAt = System.currentTimeMillis() / 1000;
+        schedule(expired(1L));
+        schedule(failing);
+        schedule(expired(3L));
+
+        // Once in the batch, then once on its own
+        verify(attemptFinalizer, timeout(WAIT_MILLIS).times(2)).finalizeAttempt(eq(failing), isNull(), any());
+        verify(attemptFinalizer, timeout(WAIT_MILLIS)).finalizeAttempt(eq(attempts.get(3L)), isNull(), any());
+        verify(attemptRepository, timeout(WAIT_MILLIS)).findWithAnswersByIdInAndStatus(
+                eq(List.of(3L)), eq(QuizAttempt.AttemptStatus.IN_PROGRESS));
+
+        // The others are done, the failing one is tracked again for a retry in a minute
+        awaitOpenAttempts(1);
+        assertThat(scheduledTick(2L)).isGreaterThanOrEqualTo(failedAt + 60);
+        verify(attemptFinalizer, after(1500).times(2)).finalizeAttempt(eq(failing), isNull(), any());
+    }
+
+    @Test
+    void singleAttemptFailureIsRescheduledWithoutFallback() {
+        QuizAttempt failing = expired(4L);
+        doThrow(new IllegalStateException("cannot close"))
+                .when(attemptFinalizer).finalizeAttempt(eq(failing), isNull(), any());
+        long failedAt = System.currentTimeMillis() / 1000;
+        schedule(failing);
+
+        verify(attemptFinalizer, timeout(WAIT_MILLIS)).finalizeAttempt(eq(failing), isNull(), any());
+        verify(attemptRepository, after(1500).times(1)).findWithAnswersByIdInAndStatus(anyList(), any());
+        assertThat(scheduler.openAttempts()).isEqualTo(1);
+        assertThat(scheduledTick(4L)).isGreaterThanOrEqualTo(failedAt + 60);
+    }
+
+    @Test
+    void cancelledAttemptIsNeverFinalized() {
+        schedule(expired(5L));
+        scheduler.cancelAfterCommit(5L);
+
+        assertThat(scheduler.openAttempts()).isZero();
+        verify(attemptFinalizer, after(2500).never()).finalizeAttempt(any(), any(), any());
+    }
+
+    @Test
+    void attemptWithinItsTimeLimitStaysOpen() {
+        scheduler.scheduleAfterCommit(6L, LocalDateTime.now(), 30);
+
+        verify(attemptFinalizer, after(2500).never()).finalizeAttempt(any(), any(), any());
+        assertThat(scheduler.openAttempts()).isEqualTo(1);
+    }
+
+    // Started two hours ago with a 30 minute limit, so it is due on the next tick once scheduled
+    private QuizAttempt expired(Long attemptId) {
+        Quiz quiz = new Quiz();
+        quiz.setDuration(30);
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(attemptId);
+        attempt.setQuiz(quiz);
+        attempt.setStartedAt(LocalDateTime.now().minusHours(2));
+        attempts.put(attemptId, attempt);
+        return attempt;
+    }
+
+    // Attempts are untracked only after the finalizing transaction commits, just after the finalizer returns
+    private void awaitOpenAttempts(int expected) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (scheduler.openAttempts() != expected && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(scheduler.openAttempts()).isEqualTo(expected);
+    }
+
+    private void schedule(QuizAttempt attempt) {
+        scheduler.scheduleAfterCommit(attempt.getId(), attempt.getStartedAt(), attempt.getQuiz().getDuration());
+    }
+
+    @SuppressWarnings("unchecked")
+    private long scheduledTick(Long attemptId) {
+        Map<Long, TimingWheel.Entry> scheduled =
+                (Map<Long, TimingWheel.Entry>) ReflectionTestUtils.getField(scheduler, "scheduled");
+        return scheduled.get(attemptId).expirationTick;
+    }
+}
@@ -0,0 +1,131 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.LeaderboardEntry;
+import com.quizforge.repository.QuizAttemptRepository;
+import com.quizforge.repository.QuizRepository;
+import com.quizforge.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Boards rank by score, then time taken, keep only their capacity, and a rebuild keeps the
+ * attempts evaluated while its query runs instead of replacing the board with a stale snapshot.
+ */
+class LeaderboardServiceTest {
+
+    private static final Long QUIZ = 7L;
+
+    private record Row(Long getId, Long getQuizId, Long getUserId, Integer getScore, Integer getTotalPoints,
+                       Long getTimeTakenMinutes, LocalDateTime getSubmittedAt)
+            implements QuizAttemptRepository.RankedAttempt {}
+
+    private final QuizAttemptRepository attemptRepository = mock(QuizAttemptRepository.class);
+    private final LeaderboardService leaderboardService = new LeaderboardService(3);
+
+    @BeforeEach
+    void wireRepositories() {
+        QuizRepository quizRepository = mock(QuizRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(quizRepository.existsById(QUIZ)).thenReturn(true);
+        when(userRepository.findNamesByIdIn(any())).thenReturn(List.of());
+        ReflectionTestUtils.setField(leaderboardService, "attemptRepository", attemptRepository);
+        ReflectionTestUtils.setField(leaderboardService, "quizRepository", quizRepository);
+        ReflectionTestUtils.setField(leaderboardService, "userRepository", userRepository);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void ranksByScoreThenTimeAndKeepsOnlyTheCapacity() {
+        record(1L, 5, 20L);
+        record(2L, 8, 30L);
+        record(3L, 5, 10L);
+        record(4L, 2, 5L);
+        record(2L, 8, 30L); // offered twice, e.g. by the seed query and after commit
+
+        assertThat(ranking()).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void attemptIsRankedOnlyOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        record(1L, 5, 20L);
+        assertThat(ranking()).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(ranking()).containsExactly(1L);
+    }
+
+    @Test
+    void rebuildReplacesScoresChangedUnderneath() {
+        record(1L, 5, 20L);
+        record(2L, 4, 20L);
+        when(attemptRepository.findTopAttempts(eq(QUIZ), anyInt())).thenReturn(List.of(row(2L, 6, 20L), row(1L, 3, 20L)));
+
+        leaderboardService.rebuild(QUIZ);
+
+        assertThat(ranking()).containsExactly(2L, 1L);
+        assertThat(leaderboardService.getLeaderboard(QUIZ, null, null).entries())
+                .extracting(LeaderboardEntry::score).containsExactly(6, 3);
+    }
+
+    @Test
+    void attemptEvaluatedWhileTheRebuildQueryRunsStaysOnTheBoard() {
+        record(1L, 5, 20L);
+        when(attemptRepository.findTopAttempts(eq(QUIZ), anyInt())).thenAnswer(invocation -> {
+            // Committed after the query's snapshot was taken, so the rows below miss it
+            record(2L, 9, 10L);
+            return List.of(row(1L, 5, 20L));
+        });
+
+        leaderboardService.rebuild(QUIZ);
+
+        assertThat(ranking()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void failedRebuildKeepsTheBoard() {
+        record(1L, 5, 20L);
+        when(attemptRepository.findTopAttempts(eq(QUIZ), anyInt())).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> leaderboardService.rebuild(QUIZ)).isInstanceOf(IllegalStateException.class);
+        record(2L, 9, 10L);
+
+        assertThat(ranking()).containsExactly(2L, 1L);
+    }
+
+    private void record(Long attemptId, int score, Long timeTakenMinutes) {
+        leaderboardService.recordAfterCommit(QUIZ, attemptId, 100 + attemptId, score, 10, timeTakenMinutes,
+                LocalDateTime.now());
+    }
+
+    private static Row row(Long attemptId, int score, Long timeTakenMinutes) {
+        return new Row(attemptId, QUIZ, 100 + attemptId, score, 10, timeTakenMinutes, LocalDateTime.now());
+    }
+
+    private List<Long> ranking() {
+        return leaderboardService.getLeaderboard(QUIZ, 3, null).entries().stream()
+                .map(LeaderboardEntry::attemptId)
+                .toList();
+    }
+}
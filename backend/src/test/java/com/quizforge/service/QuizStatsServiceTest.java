@@ -0,0 +1,125 @@
+package com.quizforge.service;
+
+import com.quizforge.model.QuizAttempt;
+import com.quizforge.model.QuizStats;
+import com.quizforge.repository.QuizAttemptRepository;
+import com.quizforge.repository.QuizScoreCountRepository;
+import com.quizforge.repository.QuizStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Attempts counted while a rebuild runs are added to the rebuilt counters exactly once:
+ * skipped when the rebuild's snapshot already counted them, added when it missed them,
+ * and kept in the current counters when the rebuild fails.
+ */
+class QuizStatsServiceTest {
+
+    private static final Long QUIZ = 7L;
+
+    private record Totals(Long getQuizId, Long getAttemptCount, Long getScoreSum, Long getScoreSquareSum,
+                          Integer getMinScore, Integer getMaxScore, Long getExceededCount, Long getPassedCount)
+            implements QuizAttemptRepository.ScoreTotals {}
+
+    private final QuizAttemptRepository attemptRepository = mock(QuizAttemptRepository.class);
+    private final QuizStatsRepository statsRepository = mock(QuizStatsRepository.class);
+    private final QuizStatsService quizStatsService = new QuizStatsService(mock(PlatformTransactionManager.class), 60);
+    // Evaluated attempts visible to the rebuild's snapshot
+    private final Set<Long> visible = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void wireRepositories() {
+        ReflectionTestUtils.setField(quizStatsService, "attemptRepository", attemptRepository);
+        ReflectionTestUtils.setField(quizStatsService, "statsRepository", statsRepository);
+        ReflectionTestUtils.setField(quizStatsService, "scoreCountRepository", mock(QuizScoreCountRepository.class));
+        when(attemptRepository.findScoreCounts(QUIZ)).thenReturn(List.of());
+        when(attemptRepository.findIdsByIdInAndStatus(any(), eq(QuizAttempt.AttemptStatus.EVALUATED)))
+                .thenAnswer(invocation -> {
+                    List<Long> ids = new ArrayList<>(invocation.<Collection<Long>>getArgument(0));
+                    ids.retainAll(visible);
+                    return ids;
+                });
+    }
+
+    @Test
+    void attemptTheRebuildAlreadyCountedIsNotAddedAgain() {
+        when(attemptRepository.findScoreTotals(eq(QUIZ), anyInt())).thenAnswer(invocation -> {
+            // Committed before the snapshot, its callback arrives while the query runs
+            visible.add(1L);
+            record(1L, 8);
+            return Optional.of(totals(1, 8));
+        });
+
+        quizStatsService.rebuild(QUIZ);
+
+        assertThat(quizStatsService.get(QUIZ).attempts()).isEqualTo(1);
+        assertThat(quizStatsService.get(QUIZ).scoreSum()).isEqualTo(8);
+    }
+
+    @Test
+    void attemptCommittedAfterTheSnapshotIsAdded() {
+        when(attemptRepository.findScoreTotals(eq(QUIZ), anyInt())).thenAnswer(invocation -> {
+            record(2L, 6);
+            return Optional.of(totals(1, 8));
+        });
+
+        quizStatsService.rebuild(QUIZ);
+
+        assertThat(quizStatsService.get(QUIZ).attempts()).isEqualTo(2);
+        assertThat(quizStatsService.get(QUIZ).scoreSum()).isEqualTo(14);
+    }
+
+    @Test
+    void attemptCountedAfterTheRebuildGoesToTheRebuiltCounters() {
+        when(attemptRepository.findScoreTotals(eq(QUIZ), anyInt())).thenReturn(Optional.of(totals(1, 8)));
+
+        quizStatsService.rebuild(QUIZ);
+        record(3L, 4);
+
+        assertThat(quizStatsService.get(QUIZ).attempts()).isEqualTo(2);
+        assertThat(quizStatsService.percentile(QUIZ, 8)).isEqualTo(50.0);
+    }
+
+    @Test
+    void failedRebuildKeepsTheAttemptsCountedMeanwhile() {
+        when(attemptRepository.findScoreTotals(eq(QUIZ), anyInt())).thenAnswer(invocation -> {
+            record(4L, 5);
+            throw new IllegalStateException("database down");
+        });
+        when(statsRepository.findById(QUIZ)).thenReturn(Optional.of(
+                new QuizStats(QUIZ, 0L, 0L, 0L, null, null, 0L, 0L, LocalDateTime.now())));
+
+        assertThatThrownBy(() -> quizStatsService.rebuild(QUIZ)).isInstanceOf(IllegalStateException.class);
+        record(5L, 7);
+
+        assertThat(quizStatsService.get(QUIZ).attempts()).isEqualTo(2);
+        assertThat(quizStatsService.get(QUIZ).scoreSum()).isEqualTo(12);
+    }
+
+    private void record(Long attemptId, int score) {
+        quizStatsService.recordAfterCommit(QUIZ, attemptId, score, 10, false);
+    }
+
+    private static Totals totals(long attempts, int score) {
+        return new Totals(QUIZ, attempts, attempts * score, attempts * score * score, score, score, 0L,
+                score >= 6 ? attempts : 0L);
+    }
+}
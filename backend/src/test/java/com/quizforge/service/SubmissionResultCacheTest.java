@@ -0,0 +1,168 @@
+package com.quizforge.service;
+
+import com.quizforge.dto.AttemptResponse;
+import com.quizforge.dto.OptionRequest;
+import com.quizforge.dto.QuestionRequest;
+import com.quizforge.dto.QuizRequest;
+import com.quizforge.dto.QuizResponse;
+import com.quizforge.dto.SubmitQuizRequest;
+import com.quizforge.model.User;
+import com.quizforge.repository.QuizAttemptRepository;
+import com.quizforge.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Submissions sharing an idempotency key finalize the attempt once: a duplicate arriving while the
+ * first runs waits for its result, and a failed submission is forgotten so a retry finalizes again.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SubmissionResultCacheTest {
+
+    private static final String IDEMPOTENCY_KEY = "retry-safe";
+
+    @SpyBean
+    private AttemptFinalizer attemptFinalizer;
+
+    @Autowired
+    private CandidateService candidateService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private QuizAttemptRepository attemptRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private QuizResponse quiz;
+    private Long candidateId;
+
+    @BeforeAll
+    void createQuiz() {
+        User admin = userRepository.findByEmail("admin@quizforge.com").orElseThrow();
+        candidateId = userRepository.findByEmail("candidate@example.com").orElseThrow().getId();
+        quiz = adminService.createQuiz(new QuizRequest("Idempotency", "Duplicate submissions", 30, true, List.of(
+                new QuestionRequest(null, "Question", "MULTIPLE_CHOICE", 1, List.of(
+                        new OptionRequest(null, "Right", true),
+                        new OptionRequest(null, "Wrong", false))))), admin.getId());
+    }
+
+    @Test
+    void concurrentSubmissionsWithTheSameKeyFinalizeOnce() throws Exception {
+        Long attemptId = start();
+        CountDownLatch finalizing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockFinalization(finalizing, release, false);
+
+        Submission first = submitInBackground(attemptId);
+        assertThat(finalizing.await(5, TimeUnit.SECONDS)).isTrue();
+        Submission duplicate = submitInBackground(attemptId);
+        awaitWaiting(duplicate);
+        release.countDown();
+
+        AttemptResponse response = first.result().get(5, TimeUnit.SECONDS);
+        assertThat(duplicate.result().get(5, TimeUnit.SECONDS)).isSameAs(response);
+        verify(attemptFinalizer, times(1)).finalizeAttempt(any(), any(), any());
+        // A later retry is answered from the cache as well
+        assertThat(submit(attemptId)).isSameAs(response);
+        verify(attemptFinalizer, times(1)).finalizeAttempt(any(), any(), any());
+        assertThat(attemptRepository.findById(attemptId).orElseThrow().getScore()).isEqualTo(response.score());
+    }
+
+    @Test
+    void failedSubmissionIsNotCachedAndARetryFinalizesAgain() throws Exception {
+        Long attemptId = start();
+        CountDownLatch finalizing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockFinalization(finalizing, release, true);
+
+        Submission first = submitInBackground(attemptId);
+        assertThat(finalizing.await(5, TimeUnit.SECONDS)).isTrue();
+        Submission duplicate = submitInBackground(attemptId);
+        awaitWaiting(duplicate);
+        release.countDown();
+
+        // The duplicate waited for the failing run and shares its failure instead of a result
+        assertThatThrownBy(() -> first.result().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasRootCauseMessage("database unavailable");
+        assertThatThrownBy(() -> duplicate.result().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasRootCauseMessage("database unavailable");
+        verify(attemptFinalizer, times(1)).finalizeAttempt(any(), any(), any());
+
+        reset(attemptFinalizer);
+        AttemptResponse retried = submit(attemptId);
+
+        assertThat(retried.status()).isEqualTo("EVALUATED");
+        verify(attemptFinalizer, times(1)).finalizeAttempt(any(), any(), any());
+        assertThat(submit(attemptId)).isSameAs(retried);
+    }
+
+    private Long start() {
+        reset(attemptFinalizer);
+        return candidateService.startQuiz(quiz.id(), candidateId).id();
+    }
+
+    private AttemptResponse submit(Long attemptId) {
+        return candidateService.submitQuiz(new SubmitQuizRequest(attemptId, null, IDEMPOTENCY_KEY), candidateId);
+    }
+
+    // Holds the first finalization until released, optionally failing it afterwards
+    private void blockFinalization(CountDownLatch finalizing, CountDownLatch release, boolean fail) {
+        doAnswer(invocation -> {
+            finalizing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            if (fail) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return invocation.callRealMethod();
+        }).when(attemptFinalizer).finalizeAttempt(any(), any(), any());
+    }
+
+    private Submission submitInBackground(Long attemptId) {
+        CompletableFuture<AttemptResponse> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(submit(attemptId));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, "submission");
+        thread.start();
+        return new Submission(thread, result);
+    }
+
+    private record Submission(Thread thread, CompletableFuture<AttemptResponse> result) {}
+
+    // The duplicate found the first submission's entry and waits for its result
+    private static void awaitWaiting(Submission submission) throws InterruptedException {
+        Thread thread = submission.thread();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,132 @@
+package com.quizforge.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Entries fire on exactly their tick, whatever level they were placed on and however often
+ * they were cascaded down, and cancelled entries never fire.
+ */
+class TimingWheelTest {
+
+    // Not slot aligned, so cascades happen at different offsets than the deltas
+    private static final long START = 1_000_003;
+
+    private final List<Long> fired = new ArrayList<>();
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 262_143, 262_144, 262_145})
+    void firesOnItsTickAcrossLevelBoundaries(long delta) {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.add(new TimingWheel.Entry(7, START + delta), fired::add);
+
+        wheel.advanceTo(START + delta - 1, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advanceTo(START + delta, fired::add);
+        assertThat(fired).containsExactly(7L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {63, 64, 4096})
+    void firesOnItsTickFromASlotAlignedStart(long delta) {
+        long start = 64L * 64 * 64;
+        TimingWheel wheel = new TimingWheel(start);
+        wheel.add(new TimingWheel.Entry(7, start + delta), fired::add);
+
+        wheel.advanceTo(start + delta - 1, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(start + delta, fired::add);
+        assertThat(fired).containsExactly(7L);
+    }
+
+    @Test
+    void entryAlreadyDueFiresOnAdd() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.add(new TimingWheel.Entry(1, START), fired::add);
+        wheel.add(new TimingWheel.Entry(2, START - 10), fired::add);
+
+        assertThat(fired).containsExactly(1L, 2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void entryAddedAfterTurningIsPlacedRelativeToTheCurrentTick() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.advanceTo(START + 100, fired::add);
+        wheel.add(new TimingWheel.Entry(3, START + 100 + 64), fired::add);
+
+        wheel.advanceTo(START + 163, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(START + 164, fired::add);
+        assertThat(fired).containsExactly(3L);
+    }
+
+    @Test
+    void cancelledEntriesNeverFire() {
+        TimingWheel wheel = new TimingWheel(START);
+        TimingWheel.Entry near = new TimingWheel.Entry(1, START + 10);
+        TimingWheel.Entry far = new TimingWheel.Entry(2, START + 5000);
+        TimingWheel.Entry kept = new TimingWheel.Entry(3, START + 5000);
+        wheel.add(near, fired::add);
+        wheel.add(far, fired::add);
+        wheel.add(kept, fired::add);
+
+        near.cancelled = true;
+        far.cancelled = true;
+        wheel.advanceTo(START + 10_000, fired::add);
+
+        assertThat(fired).containsExactly(3L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void entryCancelledAfterCascadingDownNeverFires() {
+        TimingWheel wheel = new TimingWheel(START);
+        TimingWheel.Entry entry = new TimingWheel.Entry(1, START + 4100);
+        wheel.add(entry, fired::add);
+
+        // Its coarse slot has come up, the entry now sits on a finer level
+        wheel.advanceTo(START + 4090, fired::add);
+        entry.cancelled = true;
+        wheel.advanceTo(START + 4200, fired::add);
+
+        assertThat(fired).isEmpty();
+    }
+
+    @Test
+    void randomDeadlinesFireOnTheirTick() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(START);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 2000; id++) {
+            long tick = START + 1 + random.nextInt(300_000);
+            deadlines.put(id, tick);
+            wheel.add(new TimingWheel.Entry(id, tick), fired::add);
+        }
+
+        long tick = START;
+        while (tick < START + 300_001) {
+            long previous = tick;
+            tick += 1 + random.nextInt(5000);
+            int before = fired.size();
+            wheel.advanceTo(tick, fired::add);
+            for (long id : fired.subList(before, fired.size())) {
+                assertThat(deadlines.get(id)).isGreaterThan(previous).isLessThanOrEqualTo(tick);
+            }
+        }
+        assertThat(fired).hasSize(2000).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+}
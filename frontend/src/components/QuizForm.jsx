@@ -43,6 +43,12 @@ const QuizForm = ({ initialData, onSubmit, submitLabel, disabled = false }) => {
     ));
   };
 
+  const addAcceptedAnswer = (qId) => {
+    setQuestions(prev => prev.map(q => 
+      q.id === qId ? { ...q, options: [...q.options, { id: Date.now(), optionText: '', isCorrect: true }] } : q
+    ));
+  };
+
   const removeOption = (qId, optId) => {
     setQuestions(prev => prev.map(q => 
       q.id === qId ? { ...q, options: q.options.filter(o => o.id !== optId) } : q
@@ -66,6 +72,8 @@ const QuizForm = ({ initialData, onSubmit, submitLabel, disabled = false }) => {
         if (q.options.length === 0) return 'All MCQ/True-False questions need options';
         if (!q.options.some(o => o.optionText.trim())) return 'All options must have text';
         if (!q.options.some(o => o.isCorrect)) return 'Each question must have a correct answer';
+      } else if (q.options.some(o => !o.optionText.trim())) {
+        return 'Accepted answers cannot be empty';
       }
     }
     return null;
@@ -290,6 +298,49 @@ const QuizForm = ({ initialData, onSubmit, submitLabel, disabled = false }) => {
                   </div>
                 </div>
               )}
+
+              {/* Accepted answers, graded automatically */}
+              {q.type === 'SHORT_ANSWER' && (
+                <div>
+                  <label className="block text-sm font-medium text-gray-700 mb-2">
+                    Accepted Answers <span className="text-xs text-gray-500">(Prefix with ~ to allow typos, or kw: a, b to require keywords)</span>
+                  </label>
+                  <div className="space-y-2">
+                    {q.options.map((opt) => (
+                      <div key={opt.id} className="flex items-center gap-2">
+                        <input 
+                          type="text" 
+                          value={opt.optionText} 
+                          onChange={(e) => updateOption(q.id, opt.id, 'optionText', e.target.value)} 
+                          className="flex-1 px-3 py-2 text-sm border border-slate-300 rounded-lg focus:ring-2 focus:ring-blue-500 focus:border-blue-500" 
+                          placeholder="Accepted answer"
+                          disabled={disabled}
+                        />
+                        {!disabled && (
+                          <button 
+                            type="button" 
+                            onClick={() => removeOption(q.id, opt.id)} 
+                            className="p-2 text-rose-600 hover:bg-rose-50 rounded-lg transition-colors"
+                            title="Remove Answer"
+                          >
+                            <span className="material-symbols-outlined text-xl">close</span>
+                          </button>
+                        )}
+                      </div>
+                    ))}
+                    {!disabled && (
+                      <button 
+                        type="button" 
+                        onClick={() => addAcceptedAnswer(q.id)} 
+                        className="w-full py-2 border-2 border-dashed border-slate-300 rounded-lg text-blue-600 hover:border-blue-400 hover:bg-blue-50 transition-colors flex items-center justify-center gap-2 text-sm font-medium"
+                      >
+                        <span className="material-symbols-outlined">add</span>
+                        Add Accepted Answer
+                      </button>
+                    )}
+                  </div>
+                </div>
+              )}
             </div>
           </div>
         ))}
@@ -1,12 +1,18 @@
 import { useNavigate } from 'react-router-dom';
 import { useState } from 'react';
 import logoSvg from '../assets/Quizforge-nobg.svg';
+import { authAPI } from '../utils/api';
 
 const Sidebar = ({ role, currentPath, userName }) => {
   const navigate = useNavigate();
   const [isOpen, setIsOpen] = useState(false);
 
-  const handleLogout = () => {
+  const handleLogout = async () => {
+    try {
+      await authAPI.logout();
+    } catch {
+      // the local session is dropped either way
+    }
     localStorage.clear();
     navigate('/');
   };
@@ -9,7 +9,9 @@ function AdminDashboard() {
   const location = useLocation();
   const [user, setUser] = useState(null);
   const [quizzes, setQuizzes] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
 
   useEffect(() => {
@@ -31,8 +33,9 @@ function AdminDashboard() {
   const fetchQuizzes = async () => {
     try {
       setError('');
-      const data = await quizAPI.getQuizzes();
-      setQuizzes(data);
+      const page = await quizAPI.getQuizzes();
+      setQuizzes(page.items);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       setError(err.message);
     } finally {
@@ -40,6 +43,19 @@ function AdminDashboard() {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await quizAPI.getQuizzes(nextCursor);
+      setQuizzes(prev => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      setError(err.message);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (id, title) => {
     try {
       // Check if quiz can be deleted
@@ -104,7 +120,7 @@ function AdminDashboard() {
             <div className="flex items-center justify-between">
               <div>
                 <p className="text-sm text-gray-600 font-medium">Total Quizzes</p>
-                <p className="text-2xl font-bold text-gray-900 mt-1">{quizzes.length}</p>
+                <p className="text-2xl font-bold text-gray-900 mt-1">{quizzes.length}{nextCursor && '+'}</p>
               </div>
               <div className="w-12 h-12 bg-gradient-to-br from-indigo-500 to-indigo-600 rounded-lg flex items-center justify-center shadow-sm">
                 <span className="material-symbols-outlined text-white text-xl">quiz</span>
@@ -242,6 +258,13 @@ function AdminDashboard() {
                     ))}
                   </tbody>
                 </table>
+                {nextCursor && (
+                  <div className="px-6 py-4 border-t border-gray-200 text-center">
+                    <button onClick={loadMore} disabled={loadingMore} className="btn-outline px-4 py-1.5 text-sm">
+                      {loadingMore ? 'Loading...' : 'Load more'}
+                    </button>
+                  </div>
+                )}
               </div>
             )}
           </div>
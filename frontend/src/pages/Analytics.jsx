@@ -10,7 +10,10 @@ function Analytics() {
   const [user, setUser] = useState(null);
   const [loading, setLoading] = useState(true);
   const [quizzes, setQuizzes] = useState([]);
+  const [nextQuizCursor, setNextQuizCursor] = useState(null);
   const [attempts, setAttempts] = useState([]);
+  const [nextAttemptCursor, setNextAttemptCursor] = useState(null);
+  const [loadingAttempts, setLoadingAttempts] = useState(false);
   const [selectedQuiz, setSelectedQuiz] = useState(null);
   const [analytics, setAnalytics] = useState({
     totalAttempts: 0,
@@ -39,19 +42,17 @@ function Analytics() {
 
   const fetchData = async () => {
     try {
-      const [quizzesData, attemptsData] = await Promise.all([
-        quizAPI.getQuizzes(),
-        quizAPI.getAttempts()
-      ]);
+      const quizPage = await quizAPI.getQuizzes();
+      const quizzesData = quizPage.items;
       
       setQuizzes(quizzesData);
-      setAttempts(attemptsData);
+      setNextQuizCursor(quizPage.nextCursor);
       
       // Set default to first quiz if available
       if (quizzesData.length > 0) {
         const firstQuizId = quizzesData[0].id;
         setSelectedQuiz(firstQuizId);
-        calculateAnalytics(attemptsData, firstQuizId);
+        await loadAttempts(firstQuizId);
       }
     } catch (error) {
       console.error('Error fetching analytics:', error);
@@ -102,9 +103,35 @@ function Analytics() {
     });
   };
 
+  const loadMoreQuizzes = async () => {
+    try {
+      const page = await quizAPI.getQuizzes(nextQuizCursor);
+      setQuizzes(prev => [...prev, ...page.items]);
+      setNextQuizCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error loading quizzes:', error);
+    }
+  };
+
+  // Attempts of one quiz, newest first, a page at a time; the figures cover the pages loaded so far
+  const loadAttempts = async (quizId, cursor, loaded = []) => {
+    try {
+      setLoadingAttempts(true);
+      const page = await quizAPI.getAttempts({ quizId, cursor, size: 200 });
+      const attemptsData = [...loaded, ...page.items];
+      setAttempts(attemptsData);
+      setNextAttemptCursor(page.nextCursor);
+      calculateAnalytics(attemptsData, quizId);
+    } catch (error) {
+      console.error('Error fetching attempts:', error);
+    } finally {
+      setLoadingAttempts(false);
+    }
+  };
+
   const handleQuizFilter = (quizId) => {
     setSelectedQuiz(quizId);
-    calculateAnalytics(attempts, quizId);
+    loadAttempts(quizId);
   };
 
   const getScoreDistribution = () => {
@@ -196,6 +223,23 @@ function Analytics() {
                 <option key={quiz.id} value={quiz.id}>{quiz.title}</option>
               ))}
             </select>
+            {nextQuizCursor && (
+              <button onClick={loadMoreQuizzes} className="btn-outline ml-3 px-3 py-1.5 text-sm">
+                Load more quizzes
+              </button>
+            )}
+            {nextAttemptCursor && (
+              <div className="flex items-center gap-3 mt-3 text-sm text-gray-600">
+                <span>Figures cover the {attempts.length} most recent attempts.</span>
+                <button
+                  onClick={() => loadAttempts(selectedQuiz, nextAttemptCursor, attempts)}
+                  disabled={loadingAttempts}
+                  className="btn-outline px-3 py-1.5 text-sm"
+                >
+                  {loadingAttempts ? 'Loading...' : 'Load more attempts'}
+                </button>
+              </div>
+            )}
           </div>
 
           {/* Key Metrics */}
@@ -9,6 +9,8 @@ function CandidateDashboard() {
   const location = useLocation();
   const [user, setUser] = useState(null);
   const [availableQuizzes, setAvailableQuizzes] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [stats, setStats] = useState({ completed: 0, avgScore: 0, passed: 0 });
   const [loading, setLoading] = useState(true);
 
@@ -33,12 +35,14 @@ function CandidateDashboard() {
 
   const fetchData = async () => {
     try {
-      const [quizzes, attempts] = await Promise.all([
+      const [quizPage, attemptPage] = await Promise.all([
         quizAPI.getQuizzes(),
         quizAPI.getAttempts()
       ]);
+      const attempts = attemptPage.items;
       
-      setAvailableQuizzes(quizzes);
+      setAvailableQuizzes(quizPage.items);
+      setNextCursor(quizPage.nextCursor);
       
       // Calculate stats from attempts
       const completed = attempts.length;
@@ -55,6 +59,19 @@ function CandidateDashboard() {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await quizAPI.getQuizzes(nextCursor);
+      setAvailableQuizzes(prev => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error loading quizzes:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   if (loading) return <LoadingSpinner message="Loading dashboard..." />;
 
   return (
@@ -163,6 +180,13 @@ function CandidateDashboard() {
                 ))}
               </div>
             )}
+            {nextCursor && (
+              <div className="mt-5 text-center">
+                <button onClick={loadMore} disabled={loadingMore} className="btn-outline px-4 py-1.5 text-sm">
+                  {loadingMore ? 'Loading...' : 'Load more'}
+                </button>
+              </div>
+            )}
           </section>
 
 
@@ -23,8 +23,8 @@ const CandidateProfile = () => {
 
   const fetchData = async () => {
     try {
-      const data = await quizAPI.getAttempts();
-      setAttempts(data);
+      const { items } = await quizAPI.getAttempts();
+      setAttempts(items);
     } catch (error) {
       console.error('Error fetching attempts:', error);
     } finally {
@@ -19,6 +19,7 @@ function Login() {
     try {
       const data = await authAPI.login(email, password);
       localStorage.setItem('token', data.token);
+      localStorage.setItem('refreshToken', data.refreshToken);
       localStorage.setItem('user', JSON.stringify({ 
         email: data.email, 
         name: data.name, 
@@ -31,7 +31,7 @@ function QuizHistory() {
 
   const fetchHistory = async () => {
     try {
-      const attempts = await quizAPI.getAttempts();
+      const { items: attempts } = await quizAPI.getAttempts();
 
       // Sort attempts by submittedAt (latest to oldest, null values at end)
       const sortedAttempts = attempts.sort((a, b) => {
@@ -17,19 +17,34 @@ api.interceptors.response.use(
   response => {
     const { success, data } = response.data;
     if (success) {
-      return data;
+      // Paged listings also need the X-Next-Cursor header
+      return response.config.withHeaders ? { data, headers: response.headers } : data;
     }
     // This shouldn't happen for successful HTTP responses
     return Promise.reject(new Error(response.data.error || 'An error occurred'));
   },
-  error => {
+  async error => {
     // HTTP error responses (4xx, 5xx)
     const errorData = error.response?.data;
     const errorMessage = errorData?.error || errorData?.message || error.message || 'An error occurred';
+    const original = error.config;
+
+    // Access tokens are short-lived: renew once with the refresh token and replay the request
+    if (error.response?.status === 401 && localStorage.getItem('refreshToken')
+        && original && !original._retried && !original.url?.startsWith('/auth/')) {
+      original._retried = true;
+      try {
+        await refreshTokens();
+        return api(original);
+      } catch {
+        // fall through to the logout below
+      }
+    }
     
     // Only redirect on 401 if user was authenticated
     if (error.response?.status === 401 && localStorage.getItem('token')) {
       localStorage.removeItem('token');
+      localStorage.removeItem('refreshToken');
       localStorage.removeItem('user');
       window.location.href = '/';
     }
@@ -38,15 +53,37 @@ api.interceptors.response.use(
   }
 );
 
+// Concurrent 401s share one refresh, a refresh token can only be used once
+let refreshing = null;
+const refreshTokens = () => {
+  if (!refreshing) {
+    refreshing = api.post('/auth/refresh', { refreshToken: localStorage.getItem('refreshToken') })
+      .then(data => {
+        localStorage.setItem('token', data.token);
+        localStorage.setItem('refreshToken', data.refreshToken);
+      })
+      .finally(() => { refreshing = null; });
+  }
+  return refreshing;
+};
+
+// Keyset-paged listings: one page and the cursor of the next one, null on the last page
+const getPage = async (url, params) => {
+  const page = await api.get(url, { params, withHeaders: true });
+  return { items: page.data, nextCursor: page.headers['x-next-cursor'] || null };
+};
+
 // Auth API
 export const authAPI = {
-  login: (email, password) => api.post('/auth/login', { email, password })
+  login: (email, password) => api.post('/auth/login', { email, password }),
+  refresh: () => refreshTokens(),
+  logout: () => api.post('/auth/logout', { refreshToken: localStorage.getItem('refreshToken') })
 };
 
 // Unified Quiz API (works for both admin and candidate based on JWT role)
 export const quizAPI = {
   // Common endpoints
-  getQuizzes: () => api.get('/quizzes'),
+  getQuizzes: (cursor) => getPage('/quizzes', { cursor }),
   getQuiz: (id) => api.get(`/quizzes/${id}`),
   
   // Admin-only endpoints
@@ -61,23 +98,23 @@ export const quizAPI = {
   startQuiz: (id) => api.post(`/quizzes/${id}/start`),
   submitQuiz: (data) => api.post('/quizzes/submit', data),
   
-  // Attempts (filtered by role on backend)
-  getAttempts: () => api.get('/quizzes/attempts'),
+  // Attempts (filtered by role on backend): admins get one page, candidates all of their own
+  getAttempts: (params) => getPage('/quizzes/attempts', params),
   getAttempt: (id) => api.get(`/quizzes/attempts/${id}`)
 };
 
 // Legacy APIs for backward compatibility (will be removed)
 export const adminAPI = {
-  getQuizzes: () => quizAPI.getQuizzes(),
+  getQuizzes: (cursor) => quizAPI.getQuizzes(cursor),
   getQuiz: (id) => quizAPI.getQuiz(id),
   createQuiz: (data) => quizAPI.createQuiz(data),
   updateQuiz: (id, data) => quizAPI.updateQuiz(id, data),
   deleteQuiz: (id) => quizAPI.deleteQuiz(id),
-  getAllAttempts: () => quizAPI.getAttempts()
+  getAllAttempts: (params) => quizAPI.getAttempts(params)
 };
 
 export const candidateAPI = {
-  getAvailableQuizzes: () => quizAPI.getQuizzes(),
+  getAvailableQuizzes: (cursor) => quizAPI.getQuizzes(cursor),
   getQuiz: (id) => quizAPI.getQuiz(id),
   startQuiz: (id) => quizAPI.startQuiz(id),
   submitQuiz: (data) => quizAPI.submitQuiz(data),
@@ -15,7 +15,9 @@ export default defineConfig({
     proxy: {
       '/api': {
         target: 'http://localhost:8080',
-        changeOrigin: true
+        changeOrigin: true,
+        // Forward the client address, the backend rate limits anonymous requests by it
+        xfwd: true
       }
     }
   },